@@ -1,40 +1,49 @@
 package org.Nlp;
 
 import org.Nlp.TfIdf.TFIDFVectorizer;
+import org.Nlp.TfIdf.VocabularyPruning;
+import org.Nlp.knn.CentroidClassifier;
+import org.Nlp.knn.ClassifierTrainer;
 import org.Nlp.knn.KNNClassifier;
+import org.Nlp.matrix.HeapMatrix;
 import org.Nlp.metrics.MetricsCalculator;
 import org.Nlp.preprocessing.Preprocessor;
+import org.Nlp.reduction.DimensionalityReduction;
 import org.Nlp.validator.CrossValidator;
 import org.Nlp.dataLoader.DataLoader;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class Main {
     public static void main(String[] args) {
         try {
-            // 1. Veri Ykleme
+            // 1. Veri Ykleme ve n leme (yalnzca yeni ve deien dosyalar ilenir, dierleri nbellekten okunur)
             DataLoader dataLoader = new DataLoader();
             Map<String, String> classFolders = Map.of(
                     "Positive", "src/main/java/org/Nlp/tweets/1",
                     "Negative", "src/main/java/org/Nlp/tweets/2",
                     "Neutral", "src/main/java/org/Nlp/tweets/3"
             );
-            dataLoader.loadData(classFolders);
-            dataLoader.cleanData();
+            Preprocessor preprocessor = new Preprocessor(null); // Varsaylan stopword listesiyle
+            Map<String, List<List<String>>> classTokens =
+                    dataLoader.loadPreprocessedData(classFolders, preprocessor, Path.of("preprocessing_cache.bin"));
             Map<String, List<String>> classData = dataLoader.getAllData();
             Map<String, Integer> classDistributions = dataLoader.calculateClassDistributions();
             System.out.println("Snf dalmlar: " + classDistributions);
 
             // Veriyi birletir ve snf etiketlerini olutur
             List<String> rawDocuments = new ArrayList<>();
+            List<List<String>> tokenizedDocuments = new ArrayList<>();
             List<String> labels = new ArrayList<>();
             List<String> documentNames = new ArrayList<>();
             for (Map.Entry<String, List<String>> entry : classData.entrySet()) {
                 String className = entry.getKey();
                 List<String> documents = entry.getValue();
                 rawDocuments.addAll(documents);
+                tokenizedDocuments.addAll(classTokens.get(className));
                 labels.addAll(Collections.nCopies(documents.size(), className));
                 for (int i = 0; i < documents.size(); i++) {
                     documentNames.add("Doc_" + (rawDocuments.size() - documents.size() + i + 1));
@@ -42,15 +51,13 @@ public class Main {
             }
             System.out.println("Toplam yklenen belge: " + rawDocuments.size());
 
-            // 2. n leme
-            Preprocessor preprocessor = new Preprocessor(null); // Varsaylan stopword listesiyle
+            // 2. Bo Kalan Belgeleri karma
             List<List<String>> preprocessedDocuments = new ArrayList<>();
             List<String> filteredLabels = new ArrayList<>();
             List<String> filteredDocumentNames = new ArrayList<>();
 
             for (int i = 0; i < rawDocuments.size(); i++) {
-                String doc = rawDocuments.get(i);
-                List<String> processed = preprocessor.preprocess(doc);
+                List<String> processed = tokenizedDocuments.get(i);
                 if (!processed.isEmpty()) {
                     preprocessedDocuments.add(processed);
                     filteredLabels.add(labels.get(i));
@@ -60,10 +67,13 @@ public class Main {
             System.out.println("n ileme tamamland. lenmi belgeler: " + preprocessedDocuments.size());
 
             // 3. TF-IDF Vektrizasyonu
-            TFIDFVectorizer vectorizer = new TFIDFVectorizer();
-            vectorizer.fit(preprocessedDocuments);
+            // Tek bir belgede geen terimler (yazm hatalar, kullanc adlar vb.) komu bulmaya katk salamaz
+            TFIDFVectorizer vectorizer = new TFIDFVectorizer(new VocabularyPruning(2, 1.0, 0));
+            vectorizer.fitParallel(preprocessedDocuments);
             double[][] tfidfMatrix = vectorizer.getTFIDFMatrix();
             System.out.println("TF-IDF vektrizasyonu tamamland.");
+            System.out.println("Kelime daarc: " + vectorizer.getUnprunedVocabularySize()
+                    + " -> " + vectorizer.getVocabulary().size() + " terim");
 
             // TF-IDF Deerlerini CSV Formatnda Kaydet
             exportTFIDFToCSV(tfidfMatrix, filteredLabels, filteredDocumentNames, vectorizer.getVocabulary(), "tfidf_values.csv");
@@ -82,6 +92,35 @@ public class Main {
             // En yi Performansl k Deerini Bulma
             int bestK = findBestK(allMetrics);
 
+            // Merkez Tabanl (Rocchio) Snflandrc ile Doruluk ve Gecikme Karlatrmas
+            // Gecikmeler ayn yoldan llr: her iki snflandrc da belgeleri tek tek snflandrr
+            CrossValidator knnLatencyValidator = new CrossValidator();
+            knnLatencyValidator.crossValidate(new HeapMatrix(tfidfMatrix), filteredLabels, ClassifierTrainer.knn(bestK, "cosine"));
+            CrossValidator centroidValidator = new CrossValidator();
+            centroidValidator.crossValidate(new HeapMatrix(tfidfMatrix), filteredLabels, CentroidClassifier.trainer(1));
+            System.out.println("k-NN (k=" + bestK + ") metrikleri: " + knnLatencyValidator.getPerformanceMetrics());
+            System.out.println("Merkez tabanl snflandrc metrikleri: " + centroidValidator.getPerformanceMetrics());
+
+            // Boyut ndirgeme (Seyrek Rastgele zdm ve LSA) ile Doruluk Karlatrmas
+            // ndirgeme her katmann eitim ksmnda yeniden renilir (sresi eitim sresine dahildir)
+            int vocabularySize = vectorizer.getVocabulary().size();
+            // LSA boyutu her katmann eitim belgelerinin ve terimlerin saysn aamaz
+            int svdComponents = Math.min(200, Math.min(tfidfMatrix.length / 2, vocabularySize));
+            List<DimensionalityReduction> reductions = new ArrayList<>();
+            reductions.add(DimensionalityReduction.randomProjection(300));
+            if (svdComponents >= 1) {
+                reductions.add(DimensionalityReduction.randomizedSvd(svdComponents));
+            } else {
+                System.out.println("LSA atland: belge veya terim says ok az.");
+            }
+            for (DimensionalityReduction reduction : reductions) {
+                CrossValidator reducedValidator = new CrossValidator();
+                reducedValidator.crossValidate(new HeapMatrix(tfidfMatrix), filteredLabels,
+                        reduction.wrap(ClassifierTrainer.knn(bestK, "cosine")));
+                System.out.println(reduction.method() + " (" + vocabularySize + " -> " + reduction.components()
+                        + " boyut) k-NN metrikleri: " + reducedValidator.getPerformanceMetrics());
+            }
+
             // 5. Model Performans Analizi
             MetricsCalculator metricsCalculator = new MetricsCalculator();
             KNNClassifier knnClassifier = new KNNClassifier(Arrays.asList(tfidfMatrix), filteredLabels);
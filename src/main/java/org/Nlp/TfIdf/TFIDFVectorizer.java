@@ -1,12 +1,41 @@
 package org.Nlp.TfIdf;
 
+import org.Nlp.matrix.OffHeapMatrix;
+import org.Nlp.matrix.SparseOffHeapMatrix;
+
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
 
 public class TFIDFVectorizer {
-    private final Map<String, Double> idfValues = new HashMap<>();
-    private final List<Map<String, Double>> tfidfMatrix = new ArrayList<>();
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    private final List<SparseRow> tfidfMatrix = new ArrayList<>();
     private List<String> vocabulary = new ArrayList<>();
+    private TermIntMap columnIndex = new TermIntMap(0);
+    private double[] idfValues = new double[0];
+    private final VocabularyPruning pruning;
+    private int unprunedVocabularySize;
+
+    /**
+     * Constructor for TFIDFVectorizer that keeps every term.
+     */
+    public TFIDFVectorizer() {
+        this(VocabularyPruning.NONE);
+    }
+
+    /**
+     * Constructor for TFIDFVectorizer.
+     *
+     * @param pruning Document-frequency thresholds and feature cap applied before the matrix is built.
+     */
+    public TFIDFVectorizer(VocabularyPruning pruning) {
+        if (pruning == null) {
+            throw new IllegalArgumentException("Vocabulary pruning cannot be null.");
+        }
+        this.pruning = pruning;
+    }
 
     /**
      * Computes the TF-IDF values for the given documents.
@@ -18,50 +47,193 @@ public class TFIDFVectorizer {
             throw new IllegalArgumentException("Document list cannot be null or empty.");
         }
 
-        computeIDFValues(documents);
-        computeTFIDFMatrix(documents);
+        tfidfMatrix.clear();
+        fitVocabulary(countDocumentFrequencies(documents, 0, documents.size()), documents.size());
+        for (List<String> doc : documents) {
+            tfidfMatrix.add(buildRow(doc));
+        }
     }
 
     /**
-     * Computes the IDF values for all terms in the documents.
+     * Computes the TF-IDF values for the given documents on all available cores.
+     * <p>
+     * The documents are split into chunks whose document frequencies are counted in parallel
+     * (in primitive maps, without boxing) and then merged; after pruning, the rows are built
+     * in parallel as well. It runs the same counting and row-building code as {@link #fit(List)},
+     * so the result, including the column order, is the same.
      *
      * @param documents List of preprocessed documents (each as a list of terms).
      */
-    private void computeIDFValues(List<List<String>> documents) {
-        Map<String, Integer> docFrequency = new HashMap<>();
+    public void fitParallel(List<List<String>> documents) {
+        if (documents == null || documents.isEmpty()) {
+            throw new IllegalArgumentException("Document list cannot be null or empty.");
+        }
+
+        tfidfMatrix.clear();
         int totalDocs = documents.size();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, totalDocs / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        int chunkCount = (totalDocs + chunkSize - 1) / chunkSize;
 
-        for (List<String> doc : documents) {
-            Set<String> uniqueTerms = new HashSet<>(doc); // Unique terms in the document
-            for (String term : uniqueTerms) {
-                docFrequency.put(term, docFrequency.getOrDefault(term, 0) + 1);
+        TermIntMap docFrequency = IntStream.range(0, chunkCount).parallel()
+                .mapToObj(chunk -> countDocumentFrequencies(documents, chunk * chunkSize,
+                        Math.min(totalDocs, (chunk + 1) * chunkSize)))
+                .reduce(TFIDFVectorizer::mergeCounts)
+                .orElseThrow();
+
+        fitVocabulary(docFrequency, totalDocs);
+
+        SparseRow[] rows = new SparseRow[totalDocs];
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            for (int i = chunk * chunkSize; i < Math.min(totalDocs, (chunk + 1) * chunkSize); i++) {
+                rows[i] = buildRow(documents.get(i));
+            }
+        });
+        tfidfMatrix.addAll(Arrays.asList(rows));
+    }
+
+    /**
+     * Counts, for one chunk of documents, the number of documents each term occurs in.
+     */
+    private static TermIntMap countDocumentFrequencies(List<List<String>> documents, int from, int to) {
+        TermIntMap docFrequency = new TermIntMap(1024);
+        TermIntMap seenInDocument = new TermIntMap(64);
+        for (int i = from; i < to; i++) {
+            seenInDocument.clear();
+            for (String term : documents.get(i)) {
+                if (seenInDocument.addTo(term, 1) == 1) {
+                    docFrequency.addTo(term, 1);
+                }
             }
         }
+        return docFrequency;
+    }
 
-        for (String term : docFrequency.keySet()) {
-            idfValues.put(term, Math.log((double) totalDocs / docFrequency.get(term)));
+    /**
+     * Merges two partial document-frequency counts, reusing the larger one.
+     */
+    private static TermIntMap mergeCounts(TermIntMap first, TermIntMap second) {
+        if (first.size() < second.size()) {
+            second.addAll(first);
+            return second;
         }
-        vocabulary = new ArrayList<>(idfValues.keySet());
+        first.addAll(second);
+        return first;
     }
 
     /**
-     * Computes the TF-IDF matrix for the given documents.
+     * Prunes the counted terms and builds the vocabulary and IDF values from the survivors.
      *
-     * @param documents List of preprocessed documents (each as a list of terms).
+     * @param docFrequency Number of documents each term occurs in.
+     * @param totalDocs    Total number of documents.
      */
-    private void computeTFIDFMatrix(List<List<String>> documents) {
-        for (List<String> doc : documents) {
-            Map<String, Double> tfidfRow = new HashMap<>();
-            Map<String, Long> termCounts = doc.stream()
-                    .collect(Collectors.groupingBy(term -> term, Collectors.counting()));
-
-            for (String term : termCounts.keySet()) {
-                double tf = termCounts.get(term) / (double) doc.size();
-                double idf = idfValues.getOrDefault(term, 0.0);
-                tfidfRow.put(term, tf * idf);
+    private void fitVocabulary(TermIntMap docFrequency, int totalDocs) {
+        List<String> terms = new ArrayList<>(docFrequency.size());
+        docFrequency.forEach((term, count) -> terms.add(term));
+        unprunedVocabularySize = terms.size();
+        buildVocabulary(pruneVocabulary(terms, term -> docFrequency.getOrDefault(term, 0), totalDocs),
+                term -> docFrequency.getOrDefault(term, 0), totalDocs);
+    }
+
+    /**
+     * Selects the terms that pass the document-frequency thresholds, keeping at most
+     * {@code maxFeatures} of them ordered by document frequency.
+     *
+     * @param terms        All terms seen during fitting.
+     * @param docFrequency Number of documents each term occurs in.
+     * @param totalDocs    Total number of documents.
+     * @return Terms to keep in the vocabulary.
+     */
+    private List<String> pruneVocabulary(List<String> terms, ToIntFunction<String> docFrequency, int totalDocs) {
+        List<String> kept = new ArrayList<>();
+        for (String term : terms) {
+            if (pruning.accepts(docFrequency.applyAsInt(term), totalDocs)) {
+                kept.add(term);
+            }
+        }
+
+        if (pruning.maxFeatures() > 0 && kept.size() > pruning.maxFeatures()) {
+            // Most frequent terms first; ties broken by term so the selection is deterministic
+            kept.sort(Comparator.comparingInt(docFrequency).reversed()
+                    .thenComparing(Comparator.naturalOrder()));
+            kept = kept.subList(0, pruning.maxFeatures());
+        }
+        return kept;
+    }
+
+    /**
+     * Assigns a column to every kept term, in alphabetical order so that the columns do not depend
+     * on the iteration order of the map the terms were counted in, and computes its IDF value.
+     */
+    private void buildVocabulary(List<String> terms, ToIntFunction<String> docFrequency, int totalDocs) {
+        List<String> sortedTerms = new ArrayList<>(terms);
+        Collections.sort(sortedTerms);
+        vocabulary = sortedTerms;
+        columnIndex = new TermIntMap(sortedTerms.size());
+        idfValues = new double[sortedTerms.size()];
+        for (int j = 0; j < sortedTerms.size(); j++) {
+            String term = sortedTerms.get(j);
+            columnIndex.put(term, j);
+            idfValues[j] = Math.log((double) totalDocs / docFrequency.applyAsInt(term));
+        }
+    }
+
+    /**
+     * Builds the TF-IDF row of one document by sorting its column indices and counting runs,
+     * which needs no per-term map at all.
+     *
+     * @param doc Preprocessed document.
+     * @return Sparse TF-IDF row with ascending column indices.
+     */
+    private SparseRow buildRow(List<String> doc) {
+        int[] termColumns = new int[doc.size()];
+        int length = 0;
+        for (String term : doc) {
+            int column = columnIndex.getOrDefault(term, -1);
+            if (column >= 0) {
+                termColumns[length++] = column;
+            }
+        }
+        Arrays.sort(termColumns, 0, length);
+
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || termColumns[i] != termColumns[i - 1]) {
+                distinct++;
+            }
+        }
+
+        int[] columns = new int[distinct];
+        double[] values = new double[distinct];
+        int p = -1;
+        for (int i = 0; i < length; i++) {
+            if (i == 0 || termColumns[i] != termColumns[i - 1]) {
+                columns[++p] = termColumns[i];
             }
-            tfidfMatrix.add(tfidfRow);
+            values[p]++;
+        }
+        for (int i = 0; i < distinct; i++) {
+            values[i] = values[i] / doc.size() * idfValues[columns[i]];
         }
+        return new SparseRow(columns, values);
+    }
+
+    /**
+     * Computes the TF-IDF vector of a new document with the fitted vocabulary and IDF values.
+     * Terms outside the vocabulary are ignored.
+     *
+     * @param document Preprocessed document (list of terms).
+     * @return Dense TF-IDF vector with one component per vocabulary term.
+     */
+    public double[] transform(List<String> document) {
+        if (document == null) {
+            throw new IllegalArgumentException("Document cannot be null.");
+        }
+        double[] vector = new double[vocabulary.size()];
+        SparseRow row = buildRow(document);
+        for (int p = 0; p < row.columns().length; p++) {
+            vector[row.columns()[p]] = row.values()[p];
+        }
+        return vector;
     }
 
     /**
@@ -73,15 +245,44 @@ public class TFIDFVectorizer {
         double[][] matrix = new double[tfidfMatrix.size()][vocabulary.size()];
 
         for (int i = 0; i < tfidfMatrix.size(); i++) {
-            Map<String, Double> row = tfidfMatrix.get(i);
-            for (int j = 0; j < vocabulary.size(); j++) {
-                matrix[i][j] = row.getOrDefault(vocabulary.get(j), 0.0);
+            SparseRow row = tfidfMatrix.get(i);
+            for (int p = 0; p < row.columns().length; p++) {
+                matrix[i][row.columns()[p]] = row.values()[p];
             }
         }
         return matrix;
     }
 
-        /**
+    /**
+     * Returns the TF-IDF matrix in dense off-heap storage, written directly without an on-heap copy.
+     *
+     * @return Dense off-heap TF-IDF matrix.
+     */
+    public OffHeapMatrix getOffHeapTFIDFMatrix() {
+        OffHeapMatrix.Builder builder = new OffHeapMatrix.Builder(tfidfMatrix.size(), vocabulary.size());
+        for (int i = 0; i < tfidfMatrix.size(); i++) {
+            SparseRow row = tfidfMatrix.get(i);
+            for (int p = 0; p < row.columns().length; p++) {
+                builder.set(i, row.columns()[p], row.values()[p]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the TF-IDF matrix in sparse (CSR) off-heap storage.
+     *
+     * @return Sparse off-heap TF-IDF matrix.
+     */
+    public SparseOffHeapMatrix getSparseOffHeapTFIDFMatrix() {
+        SparseOffHeapMatrix.Builder builder = new SparseOffHeapMatrix.Builder(vocabulary.size());
+        for (SparseRow row : tfidfMatrix) {
+            builder.addRow(row.columns(), row.values());
+        }
+        return builder.build();
+    }
+
+    /**
      * Returns the vocabulary used in TF-IDF computation.
      *
      * @return List of unique terms in the vocabulary.
@@ -89,4 +290,19 @@ public class TFIDFVectorizer {
     public List<String> getVocabulary() {
         return vocabulary;
     }
+
+    /**
+     * Returns the number of distinct terms seen during fitting, before pruning.
+     *
+     * @return Vocabulary size before pruning.
+     */
+    public int getUnprunedVocabularySize() {
+        return unprunedVocabularySize;
+    }
+
+    /**
+     * A TF-IDF row holding only the non-zero values and their vocabulary columns.
+     */
+    private record SparseRow(int[] columns, double[] values) {
+    }
 }
@@ -0,0 +1,158 @@
+package org.Nlp.TfIdf;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Open-addressing hash map from terms to primitive int values (counts or column indices).
+ * <p>
+ * Unlike {@code HashMap<String, Integer>} it allocates no entry or boxed objects per update,
+ * and {@link #clear()} only touches the slots in use, so one instance can be reused per document.
+ */
+class TermIntMap {
+    private String[] keys;
+    private int[] values;
+    private int[] usedSlots;
+    private int size;
+    private int mask;
+
+    /**
+     * Constructor for TermIntMap.
+     *
+     * @param expectedSize Number of terms expected, used to size the table.
+     */
+    TermIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Adds a delta to the value of a term, starting from zero if the term is absent.
+     *
+     * @param term  The term.
+     * @param delta Amount to add.
+     * @return The new value.
+     */
+    int addTo(String term, int delta) {
+        int slot = findSlot(term);
+        if (keys[slot] == null) {
+            insert(slot, term, delta);
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /**
+     * Sets the value of a term.
+     *
+     * @param term  The term.
+     * @param value The value.
+     */
+    void put(String term, int value) {
+        int slot = findSlot(term);
+        if (keys[slot] == null) {
+            insert(slot, term, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    /**
+     * Returns the value of a term.
+     *
+     * @param term         The term.
+     * @param defaultValue Value returned when the term is absent.
+     * @return The stored value or {@code defaultValue}.
+     */
+    int getOrDefault(String term, int defaultValue) {
+        int slot = findSlot(term);
+        return keys[slot] == null ? defaultValue : values[slot];
+    }
+
+    /**
+     * @return Number of terms in the map.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Calls the consumer for every term and its value, in insertion order.
+     *
+     * @param consumer Receives each term and value.
+     */
+    void forEach(ObjIntConsumer<String> consumer) {
+        for (int i = 0; i < size; i++) {
+            int slot = usedSlots[i];
+            consumer.accept(keys[slot], values[slot]);
+        }
+    }
+
+    /**
+     * Adds all values of another map to this one.
+     *
+     * @param other The map to merge in.
+     */
+    void addAll(TermIntMap other) {
+        other.forEach(this::addTo);
+    }
+
+    /**
+     * Removes all terms, keeping the allocated table.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            keys[usedSlots[i]] = null;
+        }
+        size = 0;
+    }
+
+    private int findSlot(String term) {
+        int slot = mix(term.hashCode()) & mask;
+        while (keys[slot] != null && !keys[slot].equals(term)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, String term, int value) {
+        keys[slot] = term;
+        values[slot] = value;
+        usedSlots[size++] = slot;
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldUsedSlots = usedSlots;
+        int oldSize = size;
+
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldSize; i++) {
+            int oldSlot = oldUsedSlots[i];
+            int slot = findSlot(oldKeys[oldSlot]);
+            keys[slot] = oldKeys[oldSlot];
+            values[slot] = oldValues[oldSlot];
+            usedSlots[size++] = slot;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new int[capacity];
+        usedSlots = new int[capacity / 2 + 1];
+        size = 0;
+        mask = capacity - 1;
+    }
+
+    /**
+     * Spreads the bits of String.hashCode(), whose low bits cluster for short similar terms.
+     */
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,39 @@
+package org.Nlp.TfIdf;
+
+/**
+ * Document-frequency thresholds and a feature cap applied to the vocabulary before the TF-IDF matrix is built.
+ *
+ * @param minDocFrequency Minimum number of documents a term must occur in.
+ * @param maxDocFrequency Maximum fraction (0, 1] of documents a term may occur in.
+ * @param maxFeatures     Maximum number of terms to keep, the most frequent ones first (0 for no limit).
+ */
+public record VocabularyPruning(int minDocFrequency, double maxDocFrequency, int maxFeatures) {
+
+    /**
+     * Keeps every term.
+     */
+    public static final VocabularyPruning NONE = new VocabularyPruning(1, 1.0, 0);
+
+    public VocabularyPruning {
+        if (minDocFrequency < 1) {
+            throw new IllegalArgumentException("Minimum document frequency must be at least 1.");
+        }
+        if (maxDocFrequency <= 0.0 || maxDocFrequency > 1.0) {
+            throw new IllegalArgumentException("Maximum document frequency must be in (0, 1].");
+        }
+        if (maxFeatures < 0) {
+            throw new IllegalArgumentException("Maximum number of features cannot be negative.");
+        }
+    }
+
+    /**
+     * Checks whether a term with the given document frequency passes the thresholds.
+     *
+     * @param docFrequency Number of documents containing the term.
+     * @param totalDocs    Total number of documents.
+     * @return true if the term should be kept.
+     */
+    public boolean accepts(int docFrequency, int totalDocs) {
+        return docFrequency >= minDocFrequency && docFrequency <= maxDocFrequency * totalDocs;
+    }
+}
@@ -1,6 +1,10 @@
 package org.Nlp.dataLoader;
 
+import org.Nlp.preprocessing.PreprocessingCache;
+import org.Nlp.preprocessing.Preprocessor;
+
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class DataLoader {
@@ -35,6 +39,70 @@ public class DataLoader {
         }
     }
 
+    /**
+     * Loads data like {@link #loadData(Map)} and {@link #cleanData()}, and returns the preprocessed
+     * tokens of every document. Only files that are new or whose content changed since the last run
+     * are sent through the preprocessor; the rest are served from the on-disk cache, and cache
+     * entries of deleted files are dropped.
+     *
+     * @param classFolders A map of class labels to their respective folder paths.
+     * @param preprocessor Preprocessor applied to new and changed files.
+     * @param cacheFile    Path of the preprocessing cache file.
+     * @return A map of class labels to the token lists of their documents, in the same order as {@link #getAllData()}.
+     * @throws IOException if an error occurs while reading files or writing the cache.
+     */
+    public Map<String, List<List<String>>> loadPreprocessedData(Map<String, String> classFolders, Preprocessor preprocessor,
+                                                                Path cacheFile) throws IOException {
+        PreprocessingCache cache = PreprocessingCache.load(cacheFile, preprocessor.getConfigFingerprint());
+        Map<String, List<List<String>>> classTokens = new HashMap<>();
+        Set<String> existingPaths = new HashSet<>();
+        int unchanged = 0, changed = 0, added = 0;
+
+        for (Map.Entry<String, String> entry : classFolders.entrySet()) {
+            String className = entry.getKey();
+            Map<Path, String> files = fileReader.readFilesByPath(entry.getValue());
+            if (files.isEmpty()) {
+                System.err.println("Warning: No data found for class: " + className);
+            }
+
+            List<String> data = new ArrayList<>();
+            List<List<String>> tokens = new ArrayList<>();
+            for (Map.Entry<Path, String> file : files.entrySet()) {
+                String text = file.getValue();
+                if (text == null || text.trim().isEmpty()) {
+                    continue;
+                }
+                String path = file.getKey().toAbsolutePath().normalize().toString();
+                byte[] contentHash = PreprocessingCache.hash(text);
+                existingPaths.add(path);
+
+                List<String> cached = cache.lookup(path, contentHash);
+                if (cached != null) {
+                    tokens.add(cached);
+                    unchanged++;
+                } else {
+                    if (cache.contains(path)) {
+                        changed++;
+                    } else {
+                        added++;
+                    }
+                    List<String> processed = preprocessor.preprocess(text);
+                    cache.put(path, contentHash, processed);
+                    tokens.add(processed);
+                }
+                data.add(text);
+            }
+            classData.put(className, data);
+            classTokens.put(className, tokens);
+        }
+
+        int deleted = cache.retainAll(existingPaths);
+        cache.save();
+        System.out.println("Preprocessing cache: " + unchanged + " unchanged, " + added + " new, "
+                + changed + " changed, " + deleted + " deleted files");
+        return classTokens;
+    }
+
     /**
      * Returns a map of class labels to their data.
      *
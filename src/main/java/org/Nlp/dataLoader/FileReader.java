@@ -35,6 +35,34 @@ public class FileReader {
         }
     }
 
+    /**
+     * Reads all files in a folder, keeping track of which file each content came from.
+     * Files are returned in path order.
+     *
+     * @param folderPath Path to the folder containing files.
+     * @return Map of file paths to their contents; unreadable files are skipped.
+     * @throws IOException if an I/O error occurs.
+     */
+    public Map<Path, String> readFilesByPath(String folderPath) throws IOException {
+        Path folder = Paths.get(folderPath);
+
+        // Validate that the folder path exists and is a directory.
+        if (!Files.exists(folder) || !Files.isDirectory(folder)) {
+            throw new IllegalArgumentException("Invalid folder path: " + folderPath);
+        }
+
+        Map<Path, String> contents = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                String content = readFileContent(path);
+                if (content != null) {
+                    contents.put(path, content);
+                }
+            }
+        }
+        return contents;
+    }
+
     /**
      * Reads the content of a single file.
      *
@@ -0,0 +1,44 @@
+package org.Nlp.experiment;
+
+import org.Nlp.TfIdf.VocabularyPruning;
+import org.Nlp.reduction.DimensionalityReduction;
+
+import java.util.Set;
+
+/**
+ * A single point in the experiment grid.
+ *
+ * @param customStopWords Stop words added on top of the default Turkish list (empty for the default list only).
+ * @param stemming        Whether tokens are stemmed with Zemberek before vectorization.
+ * @param pruning         Vocabulary pruning applied by the TF-IDF vectorizer.
+ * @param reduction       Dimensionality reduction applied to the TF-IDF vectors.
+ * @param k               Number of neighbors for k-NN.
+ * @param metric          Similarity metric (e.g., "cosine", "euclidean").
+ */
+public record ExperimentConfig(Set<String> customStopWords, boolean stemming, VocabularyPruning pruning,
+                               DimensionalityReduction reduction, int k, String metric) {
+
+    public ExperimentConfig {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be greater than 0.");
+        }
+        if (pruning == null) {
+            throw new IllegalArgumentException("Vocabulary pruning cannot be null.");
+        }
+        if (reduction == null) {
+            throw new IllegalArgumentException("Dimensionality reduction cannot be null.");
+        }
+        if (metric == null) {
+            throw new IllegalArgumentException("Metric cannot be null.");
+        }
+        customStopWords = customStopWords == null ? Set.of() : Set.copyOf(customStopWords);
+    }
+
+    /**
+     * Creates a configuration without dimensionality reduction.
+     */
+    public ExperimentConfig(Set<String> customStopWords, boolean stemming, VocabularyPruning pruning,
+                            int k, String metric) {
+        this(customStopWords, stemming, pruning, DimensionalityReduction.NONE, k, metric);
+    }
+}
@@ -0,0 +1,12 @@
+package org.Nlp.experiment;
+
+import java.util.Map;
+
+/**
+ * Cross-validation metrics obtained for one experiment configuration.
+ *
+ * @param config  The configuration that was evaluated.
+ * @param metrics Macro-averaged metrics as returned by {@code CrossValidator.getPerformanceMetrics()}.
+ */
+public record ExperimentResult(ExperimentConfig config, Map<String, Double> metrics) {
+}
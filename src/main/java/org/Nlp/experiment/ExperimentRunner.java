@@ -0,0 +1,357 @@
+package org.Nlp.experiment;
+
+import org.Nlp.TfIdf.TFIDFVectorizer;
+import org.Nlp.TfIdf.VocabularyPruning;
+import org.Nlp.dataLoader.DataLoader;
+import org.Nlp.knn.ClassifierTrainer;
+import org.Nlp.matrix.FeatureMatrix;
+import org.Nlp.preprocessing.Preprocessor;
+import org.Nlp.reduction.DimensionalityReduction;
+import org.Nlp.validator.CrossValidator;
+import zemberek.morphology.TurkishMorphology;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Runs cross-validation over a grid of pipeline configurations.
+ * <p>
+ * Every pipeline stage (corpus loading, tokenization, stopword filtering, stemming, TF-IDF) memoizes
+ * its output keyed by the configuration that stage depends on, so changing e.g. only k or the metric
+ * re-runs cross-validation alone, toggling stemming reuses the already filtered corpus, and changing
+ * the stopword set only re-runs the filter. Stems are memoized per distinct token, so the morphology
+ * analyzes each token once across all stopword sets. TF-IDF matrices are cached in sparse off-heap form.
+ * Dimensionality reduction is not cached: it is fitted inside each fold, on the training rows only.
+ */
+public class ExperimentRunner {
+
+    private final Map<String, String> classFolders;
+    private TurkishMorphology morphology;
+
+    private LabeledCorpus corpus;
+    private List<List<String>> rawTokens;
+    private final Map<Set<String>, Preprocessor> preprocessors = new HashMap<>();
+    private final Map<String, String> stems = new HashMap<>();
+    private final Map<TokenStageKey, List<List<String>>> tokenCache = new HashMap<>();
+    private final Map<StemStageKey, List<List<String>>> stemCache = new HashMap<>();
+    private final Map<MatrixStageKey, VectorizedCorpus> matrixCache = new HashMap<>();
+
+    /**
+     * Constructor for ExperimentRunner.
+     *
+     * @param classFolders A map of class labels to their respective folder paths.
+     */
+    public ExperimentRunner(Map<String, String> classFolders) {
+        if (classFolders == null || classFolders.isEmpty()) {
+            throw new IllegalArgumentException("Class folders cannot be null or empty.");
+        }
+        this.classFolders = Map.copyOf(classFolders);
+    }
+
+    /**
+     * Builds the cartesian product of the given parameter values without vocabulary pruning.
+     *
+     * @param stopWordSets Custom stopword sets to try.
+     * @param stemming     Stemming options to try.
+     * @param kValues      Values of k to try.
+     * @param metrics      Similarity metrics to try.
+     * @return List of all configurations in the grid.
+     */
+    public static List<ExperimentConfig> grid(List<Set<String>> stopWordSets, List<Boolean> stemming,
+                                              List<Integer> kValues, List<String> metrics) {
+        return grid(stopWordSets, stemming, List.of(VocabularyPruning.NONE), kValues, metrics);
+    }
+
+    /**
+     * Builds the cartesian product of the given parameter values.
+     *
+     * @param stopWordSets   Custom stopword sets to try.
+     * @param stemming       Stemming options to try.
+     * @param pruningOptions Vocabulary pruning settings to try.
+     * @param kValues        Values of k to try.
+     * @param metrics        Similarity metrics to try.
+     * @return List of all configurations in the grid.
+     */
+    public static List<ExperimentConfig> grid(List<Set<String>> stopWordSets, List<Boolean> stemming,
+                                              List<VocabularyPruning> pruningOptions,
+                                              List<Integer> kValues, List<String> metrics) {
+        return grid(stopWordSets, stemming, pruningOptions, List.of(DimensionalityReduction.NONE), kValues, metrics);
+    }
+
+    /**
+     * Builds the cartesian product of the given parameter values, including dimensionality reduction.
+     *
+     * @param stopWordSets     Custom stopword sets to try.
+     * @param stemming         Stemming options to try.
+     * @param pruningOptions   Vocabulary pruning settings to try.
+     * @param reductionOptions Dimensionality reduction settings to try.
+     * @param kValues          Values of k to try.
+     * @param metrics          Similarity metrics to try.
+     * @return List of all configurations in the grid.
+     */
+    public static List<ExperimentConfig> grid(List<Set<String>> stopWordSets, List<Boolean> stemming,
+                                              List<VocabularyPruning> pruningOptions,
+                                              List<DimensionalityReduction> reductionOptions,
+                                              List<Integer> kValues, List<String> metrics) {
+        List<ExperimentConfig> configs = new ArrayList<>();
+        for (Set<String> stopWords : stopWordSets) {
+            for (boolean stem : stemming) {
+                for (VocabularyPruning pruning : pruningOptions) {
+                    for (DimensionalityReduction reduction : reductionOptions) {
+                        for (int k : kValues) {
+                            for (String metric : metrics) {
+                                configs.add(new ExperimentConfig(stopWords, stem, pruning, reduction, k, metric));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * Evaluates every configuration with cross-validation, reusing cached stage outputs.
+     *
+     * @param configs Configurations to evaluate.
+     * @return One result per configuration, in the same order.
+     * @throws IOException if an error occurs while reading the corpus.
+     */
+    public List<ExperimentResult> run(List<ExperimentConfig> configs) throws IOException {
+        List<ExperimentResult> results = new ArrayList<>();
+        for (ExperimentConfig config : configs) {
+            System.out.println("Running experiment: " + describe(config));
+            VectorizedCorpus vectorized = vectorize(config);
+
+            CrossValidator crossValidator = new CrossValidator();
+            if (config.reduction().equals(DimensionalityReduction.NONE)) {
+                crossValidator.crossValidate(vectorized.matrix(), vectorized.labels(), config.k(), config.metric());
+            } else {
+                crossValidator.crossValidate(vectorized.matrix(), vectorized.labels(),
+                        config.reduction().wrap(ClassifierTrainer.knn(config.k(), config.metric())));
+            }
+            results.add(new ExperimentResult(config, crossValidator.getPerformanceMetrics()));
+        }
+        return results;
+    }
+
+    /**
+     * Prints the results as a single comparative table.
+     *
+     * @param results Results returned by {@link #run(List)}.
+     */
+    public void printResults(List<ExperimentResult> results) {
+        String header = String.format("%-14s %-9s %-18s %-10s %4s %-10s %10s %10s %10s",
+                "Stopwords", "Stemming", "Pruning", "Reduction", "k", "Metric", "Precision", "Recall", "F1-Score");
+        System.out.println(header);
+        System.out.println("-".repeat(header.length()));
+        for (ExperimentResult result : results) {
+            ExperimentConfig config = result.config();
+            Map<String, Double> metrics = result.metrics();
+            System.out.printf("%-14s %-9s %-18s %-10s %4d %-10s %10.4f %10.4f %10.4f%n",
+                    describeStopWords(config.customStopWords()),
+                    config.stemming() ? "on" : "off",
+                    describePruning(config.pruning()),
+                    describeReduction(config.reduction()),
+                    config.k(),
+                    config.metric(),
+                    metrics.get("Macro Precision"),
+                    metrics.get("Macro Recall"),
+                    metrics.get("Macro F1-Score"));
+        }
+    }
+
+    /**
+     * Stage 1: loads and cleans the raw corpus. Loaded once per runner.
+     */
+    private LabeledCorpus loadCorpus() throws IOException {
+        if (corpus != null) {
+            return corpus;
+        }
+        DataLoader dataLoader = new DataLoader();
+        dataLoader.loadData(classFolders);
+        dataLoader.cleanData();
+
+        List<String> documents = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        // Sort classes so that document order, and therefore the folds, are stable between runs
+        for (Map.Entry<String, List<String>> entry : new TreeMap<>(dataLoader.getAllData()).entrySet()) {
+            documents.addAll(entry.getValue());
+            labels.addAll(Collections.nCopies(entry.getValue().size(), entry.getKey()));
+        }
+        System.out.println("Corpus loaded: " + documents.size() + " documents");
+        corpus = new LabeledCorpus(documents, labels);
+        return corpus;
+    }
+
+    /**
+     * Stage 2: tokenizes the corpus. Tokenization does not depend on the stopwords, so it runs once per runner.
+     */
+    private List<List<String>> tokenize() throws IOException {
+        if (rawTokens != null) {
+            return rawTokens;
+        }
+        LabeledCorpus loaded = loadCorpus();
+        Preprocessor preprocessor = preprocessor(Set.of());
+        List<List<String>> tokens = new ArrayList<>(loaded.documents().size());
+        for (String document : loaded.documents()) {
+            tokens.add(preprocessor.tokenize(document));
+        }
+        rawTokens = tokens;
+        return rawTokens;
+    }
+
+    /**
+     * Stage 3: removes stopwords and punctuation from the tokenized corpus.
+     */
+    private List<List<String>> filter(ExperimentConfig config) throws IOException {
+        TokenStageKey key = new TokenStageKey(config.customStopWords());
+        List<List<String>> cached = tokenCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Preprocessor preprocessor = preprocessor(config.customStopWords());
+        List<List<String>> tokens = new ArrayList<>();
+        for (List<String> document : tokenize()) {
+            tokens.add(preprocessor.removeStopWordsAndPunctuation(document));
+        }
+        tokenCache.put(key, tokens);
+        return tokens;
+    }
+
+    /**
+     * Stage 4: optionally stems the token lists. Tokens are stemmed one by one, so each distinct
+     * token is analyzed once and its stem reused for every stopword set.
+     */
+    private List<List<String>> stem(ExperimentConfig config) throws IOException {
+        StemStageKey key = new StemStageKey(new TokenStageKey(config.customStopWords()), config.stemming());
+        List<List<String>> cached = stemCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<List<String>> tokens = filter(config);
+        List<List<String>> stemmed;
+        if (config.stemming()) {
+            Preprocessor preprocessor = preprocessor(config.customStopWords());
+            stemmed = new ArrayList<>(tokens.size());
+            for (List<String> document : tokens) {
+                List<String> stemmedDocument = new ArrayList<>(document.size());
+                for (String token : document) {
+                    stemmedDocument.add(stems.computeIfAbsent(token, t -> preprocessor.stemTokens(List.of(t)).get(0)));
+                }
+                stemmed.add(stemmedDocument);
+            }
+        } else {
+            stemmed = tokens;
+        }
+        stemCache.put(key, stemmed);
+        return stemmed;
+    }
+
+    /**
+     * Stage 5: builds the TF-IDF matrix, dropping documents that became empty during preprocessing.
+     */
+    private VectorizedCorpus vectorize(ExperimentConfig config) throws IOException {
+        MatrixStageKey key = new MatrixStageKey(
+                new StemStageKey(new TokenStageKey(config.customStopWords()), config.stemming()), config.pruning());
+        VectorizedCorpus cached = matrixCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<List<String>> documents = stem(config);
+        List<String> labels = loadCorpus().labels();
+        List<List<String>> nonEmptyDocuments = new ArrayList<>();
+        List<String> nonEmptyLabels = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            if (!documents.get(i).isEmpty()) {
+                nonEmptyDocuments.add(documents.get(i));
+                nonEmptyLabels.add(labels.get(i));
+            }
+        }
+
+        TFIDFVectorizer vectorizer = new TFIDFVectorizer(config.pruning());
+        vectorizer.fitParallel(nonEmptyDocuments);
+        System.out.println("Vocabulary pruned from " + vectorizer.getUnprunedVocabularySize()
+                + " to " + vectorizer.getVocabulary().size() + " terms");
+        // Sparse storage: the dense form of every cached variant would take gigabytes of heap
+        VectorizedCorpus vectorized = new VectorizedCorpus(vectorizer.getSparseOffHeapTFIDFMatrix(), nonEmptyLabels);
+        matrixCache.put(key, vectorized);
+        return vectorized;
+    }
+
+    private Preprocessor preprocessor(Set<String> customStopWords) {
+        return preprocessors.computeIfAbsent(customStopWords, stopWords -> {
+            if (morphology == null) {
+                morphology = TurkishMorphology.createWithDefaults();
+            }
+            return new Preprocessor(stopWords, morphology);
+        });
+    }
+
+    private static String describe(ExperimentConfig config) {
+        return "stopwords=" + describeStopWords(config.customStopWords())
+                + ", stemming=" + config.stemming()
+                + ", pruning=" + describePruning(config.pruning())
+                + ", reduction=" + describeReduction(config.reduction())
+                + ", k=" + config.k()
+                + ", metric=" + config.metric();
+    }
+
+    private static String describeStopWords(Set<String> customStopWords) {
+        return customStopWords.isEmpty() ? "default" : "default+" + customStopWords.size();
+    }
+
+    private static String describePruning(VocabularyPruning pruning) {
+        if (pruning.equals(VocabularyPruning.NONE)) {
+            return "none";
+        }
+        String description = "df " + pruning.minDocFrequency() + ".." + pruning.maxDocFrequency();
+        return pruning.maxFeatures() > 0 ? description + " top " + pruning.maxFeatures() : description;
+    }
+
+    private static String describeReduction(DimensionalityReduction reduction) {
+        return switch (reduction.method()) {
+            case NONE -> "none";
+            case RANDOM_PROJECTION -> "rp " + reduction.components();
+            case RANDOMIZED_SVD -> "svd " + reduction.components();
+        };
+    }
+
+    private record LabeledCorpus(List<String> documents, List<String> labels) {
+    }
+
+    private record VectorizedCorpus(FeatureMatrix matrix, List<String> labels) {
+    }
+
+    private record TokenStageKey(Set<String> customStopWords) {
+    }
+
+    private record StemStageKey(TokenStageKey tokens, boolean stemming) {
+    }
+
+    private record MatrixStageKey(StemStageKey stemmed, VocabularyPruning pruning) {
+    }
+
+    public static void main(String[] args) {
+        try {
+            ExperimentRunner runner = new ExperimentRunner(Map.of(
+                    "Positive", "src/main/java/org/Nlp/tweets/1",
+                    "Negative", "src/main/java/org/Nlp/tweets/2",
+                    "Neutral", "src/main/java/org/Nlp/tweets/3"
+            ));
+            List<ExperimentConfig> configs = grid(
+                    List.of(Set.of(), Set.of("rt", "bi", "ki", "falan")),
+                    List.of(true, false),
+                    List.of(VocabularyPruning.NONE, new VocabularyPruning(2, 0.5, 0), new VocabularyPruning(2, 0.5, 2000)),
+                    List.of(3, 5, 7),
+                    List.of("cosine", "euclidean")
+            );
+            runner.printResults(runner.run(configs));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
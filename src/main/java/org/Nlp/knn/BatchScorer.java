@@ -0,0 +1,157 @@
+package org.Nlp.knn;
+
+import org.Nlp.matrix.FeatureMatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Finds k nearest neighbors for many queries at once.
+ * <p>
+ * Scoring one query at a time streams the whole training matrix through the cache once per query.
+ * This scorer instead takes a block of queries and splits the training rows into tiles; each tile
+ * is scored against every query in the block while its rows are still in cache, GEMM-style, and the
+ * tiles are processed in parallel. Every tile keeps its own top-k per query, and the partial
+ * results are merged at the end of the block.
+ */
+public class BatchScorer {
+    private static final int QUERY_BLOCK_SIZE = 64;
+    private static final int TRAIN_TILE_SIZE = 256;
+
+    private final FeatureMatrix trainMatrix;
+    private final List<String> labels;
+
+    /**
+     * Constructor for BatchScorer.
+     *
+     * @param trainMatrix The training TF-IDF matrix.
+     * @param labels      The labels corresponding to each row in the matrix.
+     */
+    public BatchScorer(FeatureMatrix trainMatrix, List<String> labels) {
+        if (trainMatrix == null || labels == null || trainMatrix.rows() != labels.size()) {
+            throw new IllegalArgumentException("TF-IDF matrix and labels must be non-null and of equal size.");
+        }
+        this.trainMatrix = trainMatrix;
+        this.labels = labels;
+    }
+
+    /**
+     * Predicts labels for a batch of queries with k-NN voting.
+     *
+     * @param queries   Matrix containing the query vectors.
+     * @param queryRows Rows of {@code queries} to classify.
+     * @param k         The number of nearest neighbors to consider.
+     * @param metric    The similarity metric to use (e.g., "cosine", "euclidean").
+     * @return Predicted labels, in the order of {@code queryRows}.
+     */
+    public List<String> predict(FeatureMatrix queries, int[] queryRows, int k, String metric) {
+        List<String> predictions = new ArrayList<>(queryRows.length);
+        for (List<Neighbor> neighbors : nearestNeighbors(queries, queryRows, k, metric)) {
+            predictions.add(KNNClassifier.vote(neighbors));
+        }
+        return predictions;
+    }
+
+    /**
+     * Finds the k nearest training rows for a batch of queries.
+     *
+     * @param queries   Matrix containing the query vectors.
+     * @param queryRows Rows of {@code queries} to search for.
+     * @param k         The number of nearest neighbors to find.
+     * @param metric    The similarity metric to use (e.g., "cosine", "euclidean").
+     * @return For each query, its nearest neighbors, closest first.
+     */
+    public List<List<Neighbor>> nearestNeighbors(FeatureMatrix queries, int[] queryRows, int k, String metric) {
+        return nearestNeighbors(queries, queryRows, null, k, metric);
+    }
+
+    /**
+     * Predicts the label of every training document from all the other training documents
+     * (leave-one-out), reusing this scorer's matrix as both index and queries.
+     *
+     * @param k      The number of nearest neighbors to consider.
+     * @param metric The similarity metric to use (e.g., "cosine", "euclidean").
+     * @return Predicted labels, one per training row.
+     */
+    public List<String> predictLeaveOneOut(int k, String metric) {
+        int[] allRows = IntStream.range(0, trainMatrix.rows()).toArray();
+        List<String> predictions = new ArrayList<>(allRows.length);
+        for (List<Neighbor> neighbors : nearestNeighbors(trainMatrix, allRows, allRows, k, metric)) {
+            predictions.add(KNNClassifier.vote(neighbors));
+        }
+        return predictions;
+    }
+
+    /**
+     * Finds the k nearest training rows for a batch of queries, optionally skipping one training row per query.
+     *
+     * @param excludedRows For each query, a training row that must not be returned, or null to exclude nothing.
+     */
+    private List<List<Neighbor>> nearestNeighbors(FeatureMatrix queries, int[] queryRows, int[] excludedRows,
+                                                  int k, String metric) {
+        if (queries == null || queryRows == null || k <= 0) {
+            throw new IllegalArgumentException("Queries cannot be null, and k must be greater than 0.");
+        }
+        if (queries.columns() != trainMatrix.columns()) {
+            throw new IllegalArgumentException("Queries and training matrix must have the same number of columns.");
+        }
+        SimilarityMetric similarityMetric = SimilarityMetric.of(metric);
+        int tileCount = (trainMatrix.rows() + TRAIN_TILE_SIZE - 1) / TRAIN_TILE_SIZE;
+
+        List<List<Neighbor>> results = new ArrayList<>(queryRows.length);
+        for (int blockStart = 0; blockStart < queryRows.length; blockStart += QUERY_BLOCK_SIZE) {
+            int blockSize = Math.min(QUERY_BLOCK_SIZE, queryRows.length - blockStart);
+            double[][] block = new double[blockSize][];
+            double[] blockNorms = new double[blockSize];
+            int[] blockExclusions = new int[blockSize];
+            for (int q = 0; q < blockSize; q++) {
+                block[q] = queries.row(queryRows[blockStart + q]);
+                blockNorms[q] = FeatureMatrix.squaredNorm(block[q]);
+                blockExclusions[q] = excludedRows == null ? -1 : excludedRows[blockStart + q];
+            }
+
+            TopK[] merged = IntStream.range(0, tileCount).parallel()
+                    .mapToObj(tile -> scoreTile(tile, block, blockNorms, blockExclusions, k, similarityMetric))
+                    .reduce(BatchScorer::merge)
+                    .orElseGet(() -> emptyTopK(blockSize, k));
+            for (TopK topK : merged) {
+                results.add(topK.toNeighbors(labels));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Scores one tile of training rows against every query of the block.
+     */
+    private TopK[] scoreTile(int tile, double[][] block, double[] blockNorms, int[] blockExclusions, int k,
+                             SimilarityMetric metric) {
+        TopK[] topK = emptyTopK(block.length, k);
+        int end = Math.min(trainMatrix.rows(), (tile + 1) * TRAIN_TILE_SIZE);
+        for (int row = tile * TRAIN_TILE_SIZE; row < end; row++) {
+            // The row stays in cache while it is compared with all queries of the block
+            for (int q = 0; q < block.length; q++) {
+                if (row != blockExclusions[q]) {
+                    topK[q].offer(row, metric.score(trainMatrix, row, block[q], blockNorms[q]));
+                }
+            }
+        }
+        return topK;
+    }
+
+    private static TopK[] merge(TopK[] first, TopK[] second) {
+        for (int q = 0; q < first.length; q++) {
+            first[q].addAll(second[q]);
+        }
+        return first;
+    }
+
+    private static TopK[] emptyTopK(int count, int k) {
+        TopK[] topK = new TopK[count];
+        for (int q = 0; q < count; q++) {
+            topK[q] = new TopK(k);
+        }
+        return topK;
+    }
+}
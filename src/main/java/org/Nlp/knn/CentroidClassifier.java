@@ -0,0 +1,250 @@
+package org.Nlp.knn;
+
+import org.Nlp.matrix.FeatureMatrix;
+
+import java.util.*;
+
+/**
+ * Nearest-centroid (Rocchio) classifier.
+ * <p>
+ * Each class is summarized by the normalized mean of its length-normalized training vectors,
+ * or by a few sub-centroids found with spherical k-means when a class is too spread out for a
+ * single mean. Prediction compares the test vector only with the centroids, over its non-zero
+ * components, instead of scanning every training document as k-NN does.
+ */
+public class CentroidClassifier implements Classifier {
+    private static final int KMEANS_ITERATIONS = 10;
+    private static final long SEED = 42; // Fixed seed for reproducibility
+
+    private final List<double[]> centroids = new ArrayList<>();
+    private final List<String> centroidLabels = new ArrayList<>();
+
+    /**
+     * Constructor for CentroidClassifier with one centroid per class.
+     *
+     * @param tfidfMatrix The TF-IDF matrix.
+     * @param labels      The labels corresponding to each row in the matrix.
+     */
+    public CentroidClassifier(FeatureMatrix tfidfMatrix, List<String> labels) {
+        this(tfidfMatrix, labels, 1);
+    }
+
+    /**
+     * Constructor for CentroidClassifier.
+     *
+     * @param tfidfMatrix          The TF-IDF matrix.
+     * @param labels               The labels corresponding to each row in the matrix.
+     * @param centroidsPerClass    Number of sub-centroids to cluster each class into.
+     */
+    public CentroidClassifier(FeatureMatrix tfidfMatrix, List<String> labels, int centroidsPerClass) {
+        if (tfidfMatrix == null || labels == null || tfidfMatrix.rows() != labels.size()) {
+            throw new IllegalArgumentException("TF-IDF matrix and labels must be non-null and of equal size.");
+        }
+        if (centroidsPerClass <= 0) {
+            throw new IllegalArgumentException("Number of centroids per class must be greater than 0.");
+        }
+
+        // Sorted so that centroid order, and therefore tie-breaking, does not depend on hashing
+        Map<String, List<Integer>> classRows = new TreeMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            classRows.computeIfAbsent(labels.get(i), label -> new ArrayList<>()).add(i);
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : classRows.entrySet()) {
+            List<double[]> classCentroids = centroidsPerClass == 1
+                    ? List.of(mean(tfidfMatrix, entry.getValue()))
+                    : cluster(unitVectors(tfidfMatrix, entry.getValue()), centroidsPerClass, tfidfMatrix.columns());
+            for (double[] centroid : classCentroids) {
+                if (FeatureMatrix.squaredNorm(centroid) > 0.0) {
+                    centroids.add(centroid);
+                    centroidLabels.add(entry.getKey());
+                }
+            }
+        }
+        if (centroids.isEmpty()) {
+            throw new IllegalArgumentException("At least one non-zero training vector is required.");
+        }
+    }
+
+    /**
+     * Returns a trainer that builds centroid classifiers, e.g. for cross-validation.
+     *
+     * @param centroidsPerClass Number of sub-centroids per class.
+     * @return The trainer.
+     */
+    public static ClassifierTrainer trainer(int centroidsPerClass) {
+        return (matrix, labels) -> new CentroidClassifier(matrix, labels, centroidsPerClass);
+    }
+
+    /**
+     * Predicts the label of the centroid with the highest cosine similarity.
+     *
+     * @param testVector The TF-IDF vector for the test document.
+     * @return The predicted label.
+     */
+    @Override
+    public String predict(double[] testVector) {
+        if (testVector == null) {
+            throw new IllegalArgumentException("Test vector cannot be null.");
+        }
+
+        // Only the non-zero components of the (sparse) test vector contribute to the dot products
+        int[] nonZeroIndices = new int[testVector.length];
+        int nonZeros = 0;
+        for (int j = 0; j < testVector.length; j++) {
+            if (testVector[j] != 0.0) {
+                nonZeroIndices[nonZeros++] = j;
+            }
+        }
+
+        // Centroids are unit length, so ranking by dot product equals ranking by cosine similarity
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < centroids.size(); c++) {
+            double[] centroid = centroids.get(c);
+            double score = 0.0;
+            for (int p = 0; p < nonZeros; p++) {
+                int j = nonZeroIndices[p];
+                score += testVector[j] * centroid[j];
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = c;
+            }
+        }
+        return centroidLabels.get(best);
+    }
+
+    /**
+     * @return Total number of centroids over all classes.
+     */
+    public int getCentroidCount() {
+        return centroids.size();
+    }
+
+    /**
+     * Clusters the unit vectors of one class with spherical k-means.
+     *
+     * @param vectors   Unit-length vectors of the class.
+     * @param clusters  Requested number of clusters.
+     * @param dimension Vector dimension.
+     * @return Unit-length centroids.
+     */
+    private static List<double[]> cluster(List<double[]> vectors, int clusters, int dimension) {
+        if (vectors.size() <= clusters) {
+            return vectors;
+        }
+
+        List<double[]> shuffled = new ArrayList<>(vectors);
+        Collections.shuffle(shuffled, new Random(SEED));
+        List<double[]> centers = new ArrayList<>(shuffled.subList(0, clusters));
+        int[] assignment = new int[vectors.size()];
+
+        for (int iteration = 0; iteration < KMEANS_ITERATIONS; iteration++) {
+            boolean changed = false;
+            for (int i = 0; i < vectors.size(); i++) {
+                int nearest = nearestCenter(vectors.get(i), centers);
+                if (iteration == 0 || nearest != assignment[i]) {
+                    assignment[i] = nearest;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+
+            for (int c = 0; c < clusters; c++) {
+                List<double[]> members = new ArrayList<>();
+                for (int i = 0; i < vectors.size(); i++) {
+                    if (assignment[i] == c) {
+                        members.add(vectors.get(i));
+                    }
+                }
+                if (!members.isEmpty()) { // An empty cluster keeps its previous center
+                    centers.set(c, mean(members, dimension));
+                }
+            }
+        }
+        return centers;
+    }
+
+    private static int nearestCenter(double[] vector, List<double[]> centers) {
+        int nearest = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < centers.size(); c++) {
+            double score = 0.0;
+            double[] center = centers.get(c);
+            for (int j = 0; j < vector.length; j++) {
+                score += vector[j] * center[j];
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                nearest = c;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Computes the normalized mean of the unit-length rows of one class, one row at a time.
+     */
+    private static double[] mean(FeatureMatrix matrix, List<Integer> rows) {
+        double[] sum = new double[matrix.columns()];
+        for (int row : rows) {
+            double norm = Math.sqrt(matrix.squaredNorm(row));
+            if (norm == 0.0) {
+                continue;
+            }
+            double[] vector = matrix.row(row);
+            for (int j = 0; j < sum.length; j++) {
+                sum[j] += vector[j] / norm;
+            }
+        }
+        normalize(sum);
+        return sum;
+    }
+
+    /**
+     * Copies the non-zero rows of one class as unit-length vectors.
+     */
+    private static List<double[]> unitVectors(FeatureMatrix matrix, List<Integer> rows) {
+        List<double[]> vectors = new ArrayList<>();
+        for (int row : rows) {
+            double[] vector = matrix.row(row);
+            if (normalize(vector)) {
+                vectors.add(vector);
+            }
+        }
+        return vectors;
+    }
+
+    /**
+     * Computes the normalized mean of the given vectors.
+     */
+    private static double[] mean(List<double[]> vectors, int dimension) {
+        double[] sum = new double[dimension];
+        for (double[] vector : vectors) {
+            for (int j = 0; j < dimension; j++) {
+                sum[j] += vector[j];
+            }
+        }
+        normalize(sum);
+        return sum;
+    }
+
+    /**
+     * Scales a vector to unit length in place.
+     *
+     * @return false if the vector is all zeros and was left unchanged.
+     */
+    private static boolean normalize(double[] vector) {
+        double norm = Math.sqrt(FeatureMatrix.squaredNorm(vector));
+        if (norm == 0.0) {
+            return false;
+        }
+        for (int j = 0; j < vector.length; j++) {
+            vector[j] /= norm;
+        }
+        return true;
+    }
+}
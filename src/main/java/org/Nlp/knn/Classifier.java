@@ -0,0 +1,16 @@
+package org.Nlp.knn;
+
+/**
+ * A trained classifier that assigns a label to a single document vector.
+ */
+@FunctionalInterface
+public interface Classifier {
+
+    /**
+     * Predicts the label for a document.
+     *
+     * @param vector The TF-IDF vector of the document.
+     * @return The predicted label.
+     */
+    String predict(double[] vector);
+}
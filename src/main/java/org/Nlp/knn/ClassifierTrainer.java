@@ -0,0 +1,35 @@
+package org.Nlp.knn;
+
+import org.Nlp.matrix.FeatureMatrix;
+
+import java.util.List;
+
+/**
+ * Trains a {@link Classifier} on a labeled matrix, e.g. on the training part of a cross-validation fold.
+ */
+@FunctionalInterface
+public interface ClassifierTrainer {
+
+    /**
+     * Trains a classifier.
+     *
+     * @param matrix The training TF-IDF matrix.
+     * @param labels The labels corresponding to each row in the matrix.
+     * @return The trained classifier.
+     */
+    Classifier train(FeatureMatrix matrix, List<String> labels);
+
+    /**
+     * Returns a trainer for k-NN with the given parameters.
+     *
+     * @param k      The number of nearest neighbors to consider.
+     * @param metric The similarity metric to use (e.g., "cosine", "euclidean").
+     * @return The k-NN trainer.
+     */
+    static ClassifierTrainer knn(int k, String metric) {
+        return (matrix, labels) -> {
+            KNNClassifier knn = new KNNClassifier(matrix, labels);
+            return vector -> knn.predict(vector, k, metric);
+        };
+    }
+}
@@ -1,9 +1,12 @@
 package org.Nlp.knn;
 
+import org.Nlp.matrix.FeatureMatrix;
+import org.Nlp.matrix.HeapMatrix;
+
 import java.util.*;
 
 public class KNNClassifier {
-    private final List<double[]> tfidfMatrix;
+    private final FeatureMatrix tfidfMatrix;
     private final List<String> labels;
 
     /**
@@ -13,7 +16,17 @@ public class KNNClassifier {
      * @param labels      The labels corresponding to each document in the matrix.
      */
     public KNNClassifier(List<double[]> tfidfMatrix, List<String> labels) {
-        if (tfidfMatrix == null || labels == null || tfidfMatrix.size() != labels.size()) {
+        this(tfidfMatrix == null ? null : new HeapMatrix(tfidfMatrix), labels);
+    }
+
+    /**
+     * Constructor for KNNClassifier over any matrix storage backend (e.g. off-heap).
+     *
+     * @param tfidfMatrix The TF-IDF matrix.
+     * @param labels      The labels corresponding to each row in the matrix.
+     */
+    public KNNClassifier(FeatureMatrix tfidfMatrix, List<String> labels) {
+        if (tfidfMatrix == null || labels == null || tfidfMatrix.rows() != labels.size()) {
             throw new IllegalArgumentException("TF-IDF matrix and labels must be non-null and of equal size.");
         }
         this.tfidfMatrix = tfidfMatrix;
@@ -29,86 +42,53 @@ public class KNNClassifier {
      * @return The predicted label.
      */
     public String predict(double[] testVector, int k, String metric) {
-        if (testVector == null || k <= 0) {
-            throw new IllegalArgumentException("Test vector cannot be null, and k must be greater than 0.");
-        }
-
-        // Calculate distances/similarities
-        List<Map.Entry<String, Double>> distances = new ArrayList<>();
-        for (int i = 0; i < tfidfMatrix.size(); i++) {
-            double score = calculateMetric(testVector, tfidfMatrix.get(i), metric);
-            distances.add(Map.entry(labels.get(i), score));
-        }
-
-        // Sort by similarity in descending order (higher is better for similarity metrics like cosine)
-        distances.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
-
-        // Get the top k labels
-        Map<String, Integer> labelCounts = new HashMap<>();
-        for (int i = 0; i < k && i < distances.size(); i++) {
-            String label = distances.get(i).getKey();
-            labelCounts.put(label, labelCounts.getOrDefault(label, 0) + 1);
-        }
-
-        // Return the label with the highest count
-        return labelCounts.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse(null);
+        return vote(nearestNeighbors(testVector, k, metric));
     }
 
     /**
-     * Calculates the similarity or distance metric between two vectors.
+     * Finds the k training documents closest to a test document.
      *
-     * @param vec1   The first vector.
-     * @param vec2   The second vector.
-     * @param metric The metric to use ("cosine", "euclidean").
-     * @return The calculated metric value.
-     */
-    private double calculateMetric(double[] vec1, double[] vec2, String metric) {
-        return switch (metric.toLowerCase()) {
-            case "cosine" -> cosineSimilarity(vec1, vec2);
-            case "euclidean" -> euclideanDistance(vec1, vec2);
-            default -> throw new IllegalArgumentException("Unsupported metric: " + metric);
-        };
-    }
-
-    /**
-     * Calculates cosine similarity between two vectors.
-     *
-     * @param vec1 The first vector.
-     * @param vec2 The second vector.
-     * @return The cosine similarity score.
+     * @param testVector The TF-IDF vector for the test document.
+     * @param k          The number of nearest neighbors to find.
+     * @param metric     The similarity metric to use (e.g., "cosine", "euclidean").
+     * @return The nearest neighbors, closest first.
      */
-    private double cosineSimilarity(double[] vec1, double[] vec2) {
-        double dotProduct = 0.0;
-        double magnitudeVec1 = 0.0;
-        double magnitudeVec2 = 0.0;
-
-        for (int i = 0; i < vec1.length; i++) {
-            dotProduct += vec1[i] * vec2[i];
-            magnitudeVec1 += Math.pow(vec1[i], 2);
-            magnitudeVec2 += Math.pow(vec2[i], 2);
+    public List<Neighbor> nearestNeighbors(double[] testVector, int k, String metric) {
+        if (testVector == null || k <= 0) {
+            throw new IllegalArgumentException("Test vector cannot be null, and k must be greater than 0.");
         }
 
-        if (magnitudeVec1 == 0.0 || magnitudeVec2 == 0.0) {
-            return 0.0; // To avoid division by zero
+        // Keep only the k closest rows instead of sorting the scores of all of them
+        SimilarityMetric similarityMetric = SimilarityMetric.of(metric);
+        double testSquaredNorm = FeatureMatrix.squaredNorm(testVector);
+        TopK topK = new TopK(k);
+        for (int i = 0; i < tfidfMatrix.rows(); i++) {
+            topK.offer(i, similarityMetric.score(tfidfMatrix, i, testVector, testSquaredNorm));
         }
-        return dotProduct / (Math.sqrt(magnitudeVec1) * Math.sqrt(magnitudeVec2));
+        return topK.toNeighbors(labels);
     }
 
     /**
-     * Calculates Euclidean distance between two vectors.
+     * Returns the most frequent label among the neighbors. Ties go to the label whose
+     * closest neighbor is nearest to the query.
      *
-     * @param vec1 The first vector.
-     * @param vec2 The second vector.
-     * @return The Euclidean distance.
+     * @param neighbors Nearest neighbors, closest first.
+     * @return The predicted label, or null if there are no neighbors.
      */
-    private double euclideanDistance(double[] vec1, double[] vec2) {
-        double sumSquaredDifferences = 0.0;
-        for (int i = 0; i < vec1.length; i++) {
-            sumSquaredDifferences += Math.pow(vec1[i] - vec2[i], 2);
+    public static String vote(List<Neighbor> neighbors) {
+        Map<String, Integer> labelCounts = new LinkedHashMap<>();
+        for (Neighbor neighbor : neighbors) {
+            labelCounts.merge(neighbor.label(), 1, Integer::sum);
+        }
+
+        String best = null;
+        int bestCount = 0;
+        for (Map.Entry<String, Integer> entry : labelCounts.entrySet()) {
+            if (entry.getValue() > bestCount) {
+                best = entry.getKey();
+                bestCount = entry.getValue();
+            }
         }
-        return Math.sqrt(sumSquaredDifferences);
+        return best;
     }
 }
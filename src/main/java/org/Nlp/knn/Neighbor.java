@@ -0,0 +1,12 @@
+package org.Nlp.knn;
+
+/**
+ * A training document found among the nearest neighbors of a query.
+ *
+ * @param row   Index of the training row.
+ * @param label Label of the training document.
+ * @param score Closeness to the query, higher is closer: the cosine similarity, or the negated
+ *              Euclidean distance.
+ */
+public record Neighbor(int row, String label, double score) {
+}
@@ -0,0 +1,54 @@
+package org.Nlp.knn;
+
+import org.Nlp.matrix.FeatureMatrix;
+
+/**
+ * Similarity metrics supported by the k-NN classifiers. Scores are oriented so that higher means closer.
+ */
+public enum SimilarityMetric {
+    COSINE {
+        @Override
+        double score(FeatureMatrix matrix, int row, double[] vector, double vectorSquaredNorm) {
+            double rowSquaredNorm = matrix.squaredNorm(row);
+            if (vectorSquaredNorm == 0.0 || rowSquaredNorm == 0.0) {
+                return 0.0; // To avoid division by zero
+            }
+            return matrix.dot(row, vector) / (Math.sqrt(vectorSquaredNorm) * Math.sqrt(rowSquaredNorm));
+        }
+    },
+    EUCLIDEAN {
+        @Override
+        double score(FeatureMatrix matrix, int row, double[] vector, double vectorSquaredNorm) {
+            return -Math.sqrt(matrix.squaredDistance(row, vector, vectorSquaredNorm));
+        }
+    };
+
+    /**
+     * Scores a training row against a query vector.
+     *
+     * @param matrix            The training matrix.
+     * @param row               Index of the training row.
+     * @param vector            The query vector.
+     * @param vectorSquaredNorm Squared norm of the query vector.
+     * @return The score, higher is closer.
+     */
+    abstract double score(FeatureMatrix matrix, int row, double[] vector, double vectorSquaredNorm);
+
+    /**
+     * Resolves a metric name.
+     *
+     * @param metric The metric name ("cosine", "euclidean").
+     * @return The metric.
+     * @throws IllegalArgumentException if the metric is not supported.
+     */
+    public static SimilarityMetric of(String metric) {
+        if (metric == null) {
+            throw new IllegalArgumentException("Metric cannot be null.");
+        }
+        return switch (metric.toLowerCase()) {
+            case "cosine" -> COSINE;
+            case "euclidean" -> EUCLIDEAN;
+            default -> throw new IllegalArgumentException("Unsupported metric: " + metric);
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package org.Nlp.knn;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps the k highest-scoring training rows seen so far in a bounded min-heap of primitives.
+ * Equal scores are ordered by row index, so results match a stable sort of all scores.
+ */
+class TopK {
+    private static final Comparator<Neighbor> CLOSEST_FIRST =
+            Comparator.comparingDouble(Neighbor::score).reversed().thenComparingInt(Neighbor::row);
+
+    private final int[] rows;
+    private final double[] scores;
+    private int size;
+
+    TopK(int k) {
+        this.rows = new int[k];
+        this.scores = new double[k];
+    }
+
+    /**
+     * Offers a candidate, keeping it only if it is among the k best so far.
+     *
+     * @param row   Index of the training row.
+     * @param score Score of the row, higher is closer.
+     */
+    void offer(int row, double score) {
+        if (size < rows.length) {
+            rows[size] = row;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (size > 0 && isBetter(row, score, rows[0], scores[0])) {
+            rows[0] = row;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Merges the candidates of another heap into this one.
+     *
+     * @param other Heap built over a different set of training rows.
+     */
+    void addAll(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.rows[i], other.scores[i]);
+        }
+    }
+
+    /**
+     * Returns the kept candidates, closest first.
+     *
+     * @param labels Labels of the training rows.
+     * @return Neighbors ordered from closest to farthest.
+     */
+    List<Neighbor> toNeighbors(List<String> labels) {
+        List<Neighbor> neighbors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            neighbors.add(new Neighbor(rows[i], labels.get(rows[i]), scores[i]));
+        }
+        neighbors.sort(CLOSEST_FIRST);
+        return neighbors;
+    }
+
+    private static boolean isBetter(int row, double score, int otherRow, double otherScore) {
+        int comparison = Double.compare(score, otherScore);
+        return comparison > 0 || (comparison == 0 && row < otherRow);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!isBetter(rows[parent], scores[parent], rows[index], scores[index])) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && isBetter(rows[worst], scores[worst], rows[left], scores[left])) {
+                worst = left;
+            }
+            if (right < size && isBetter(rows[worst], scores[worst], rows[right], scores[right])) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int row = rows[i];
+        rows[i] = rows[j];
+        rows[j] = row;
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+}
@@ -0,0 +1,178 @@
+package org.Nlp.knn.shard;
+
+import org.Nlp.TfIdf.TFIDFVectorizer;
+import org.Nlp.TfIdf.VocabularyPruning;
+import org.Nlp.dataLoader.DataLoader;
+import org.Nlp.knn.KNNClassifier;
+import org.Nlp.matrix.FeatureMatrix;
+import org.Nlp.preprocessing.Preprocessor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how sharded k-NN latency and throughput scale with the number of local worker JVMs,
+ * and checks that the sharded predictions agree with a single in-process {@link KNNClassifier}.
+ * <p>
+ * Latency is measured with one client sending queries one after another; throughput is measured
+ * both for that single client and for {@value #CLIENTS} clients sending queries concurrently.
+ * <p>
+ * Usage: {@code ShardBenchmark [shardCount...]}, by default 1, 2 and 4 shards.
+ */
+public class ShardBenchmark {
+    private static final int K = 3;
+    private static final String METRIC = "cosine";
+    private static final int MAX_QUERIES = 300;
+    private static final int WARMUP_QUERIES = 50;
+    private static final int CLIENTS = 8;
+
+    public static void main(String[] args) {
+        try {
+            List<Integer> shardCounts = new ArrayList<>();
+            for (String arg : args) {
+                shardCounts.add(Integer.parseInt(arg));
+            }
+            if (shardCounts.isEmpty()) {
+                shardCounts = List.of(1, 2, 4);
+            }
+
+            // Same corpus and features as Main
+            DataLoader dataLoader = new DataLoader();
+            Map<String, String> classFolders = Map.of(
+                    "Positive", "src/main/java/org/Nlp/tweets/1",
+                    "Negative", "src/main/java/org/Nlp/tweets/2",
+                    "Neutral", "src/main/java/org/Nlp/tweets/3"
+            );
+            Map<String, List<List<String>>> classTokens = dataLoader.loadPreprocessedData(
+                    classFolders, new Preprocessor(null), Path.of("preprocessing_cache.bin"));
+            List<List<String>> documents = new ArrayList<>();
+            List<String> labels = new ArrayList<>();
+            for (Map.Entry<String, List<List<String>>> entry : new TreeMap<>(classTokens).entrySet()) {
+                for (List<String> tokens : entry.getValue()) {
+                    if (!tokens.isEmpty()) {
+                        documents.add(tokens);
+                        labels.add(entry.getKey());
+                    }
+                }
+            }
+            TFIDFVectorizer vectorizer = new TFIDFVectorizer(new VocabularyPruning(2, 1.0, 0));
+            vectorizer.fitParallel(documents);
+            FeatureMatrix matrix = vectorizer.getSparseOffHeapTFIDFMatrix();
+
+            // Queries spread evenly over the corpus (and therefore over all shards)
+            int queryCount = Math.min(MAX_QUERIES, matrix.rows());
+            List<double[]> queries = new ArrayList<>(queryCount);
+            for (int i = 0; i < queryCount; i++) {
+                queries.add(vectorizer.transform(documents.get((int) ((long) i * matrix.rows() / queryCount))));
+            }
+            System.out.println("Benchmarking " + queryCount + " queries against " + matrix.rows()
+                    + " documents (" + matrix.columns() + " terms), k=" + K + ", " + METRIC + ".");
+
+            KNNClassifier local = new KNNClassifier(matrix, labels);
+            List<String> expected = new ArrayList<>(queryCount);
+            for (double[] query : queries) {
+                expected.add(local.predict(query, K, METRIC));
+            }
+            long[] localNanos = new long[queryCount];
+            for (int i = 0; i < queryCount; i++) {
+                long start = System.nanoTime();
+                local.predict(queries.get(i), K, METRIC);
+                localNanos[i] = System.nanoTime() - start;
+            }
+
+            double localConcurrent = concurrentQueriesPerSecond(queries, local::predict);
+
+            System.out.printf("%-12s %10s %10s %14s %14s %10s%n", "Shards", "p50 (ms)", "p95 (ms)",
+                    "Queries/s (1)", "Queries/s (" + CLIENTS + ")", "Agreement");
+            printRow("in-process", localNanos, localConcurrent, 1.0);
+
+            Path directory = Files.createTempDirectory("knn-shards");
+            try {
+                for (int shardCount : shardCounts) {
+                    // Streamed from the documents, so the shard files never need the full matrix in memory
+                    List<Path> shardFiles = ShardCoordinator.writeShards(vectorizer, documents, labels, shardCount, directory);
+                    try (ShardCoordinator coordinator = ShardCoordinator.launch(shardFiles)) {
+                        for (int i = 0; i < Math.min(WARMUP_QUERIES, queryCount); i++) {
+                            coordinator.predict(queries.get(i), K, METRIC);
+                        }
+                        long[] nanos = new long[queryCount];
+                        int agreements = 0;
+                        for (int i = 0; i < queryCount; i++) {
+                            long start = System.nanoTime();
+                            String predicted = coordinator.predict(queries.get(i), K, METRIC);
+                            nanos[i] = System.nanoTime() - start;
+                            if (predicted.equals(expected.get(i))) {
+                                agreements++;
+                            }
+                        }
+                        double concurrent = concurrentQueriesPerSecond(queries, coordinator::predict);
+                        printRow(String.valueOf(shardCount), nanos, concurrent, (double) agreements / queryCount);
+                    } finally {
+                        for (Path shardFile : shardFiles) {
+                            Files.deleteIfExists(shardFile);
+                        }
+                    }
+                }
+            } finally {
+                Files.deleteIfExists(directory);
+            }
+        } catch (IOException e) {
+            System.err.println("Shard benchmark failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends every query once from {@value #CLIENTS} concurrent clients and measures the wall-clock rate.
+     */
+    private static double concurrentQueriesPerSecond(List<double[]> queries, Predictor predictor) throws IOException {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            AtomicInteger next = new AtomicInteger();
+            List<Future<Void>> results = new ArrayList<>(CLIENTS);
+            long start = System.nanoTime();
+            for (int c = 0; c < CLIENTS; c++) {
+                results.add(clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < queries.size(); i = next.getAndIncrement()) {
+                        predictor.predict(queries.get(i), K, METRIC);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+            return queries.size() / ((System.nanoTime() - start) / 1e9);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during the concurrent run.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Concurrent query failed: " + e.getCause(), e.getCause());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static void printRow(String name, long[] nanos, double concurrentQueriesPerSecond, double agreement) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        long total = Arrays.stream(sorted).sum();
+        System.out.printf("%-12s %10.3f %10.3f %14.1f %14.1f %9.1f%%%n", name,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.95))] / 1e6,
+                sorted.length / (total / 1e9),
+                concurrentQueriesPerSecond,
+                agreement * 100);
+    }
+
+    @FunctionalInterface
+    private interface Predictor {
+        String predict(double[] query, int k, String metric) throws IOException;
+    }
+}
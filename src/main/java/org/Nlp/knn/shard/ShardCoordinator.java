@@ -0,0 +1,410 @@
+package org.Nlp.knn.shard;
+
+import org.Nlp.TfIdf.TFIDFVectorizer;
+import org.Nlp.knn.KNNClassifier;
+import org.Nlp.knn.Neighbor;
+import org.Nlp.knn.SimilarityMetric;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Scatter-gather k-NN over training shards held by {@link ShardWorker} processes.
+ * <p>
+ * Each query is sent to every worker at once; each worker returns the top-k of its own shard,
+ * and the coordinator merges the partial lists into the global top-k and votes. Shards hold
+ * consecutive row ranges, so neighbors are reported with their row index in the full training
+ * set, and ties are broken by that index exactly as a single {@link KNNClassifier} would.
+ * <p>
+ * The coordinator is thread-safe: it keeps a small pool of connections to every worker, so
+ * queries from concurrent callers are answered in parallel rather than one after another.
+ */
+public class ShardCoordinator implements AutoCloseable {
+    private static final Comparator<Neighbor> CLOSEST_FIRST =
+            Comparator.comparingDouble(Neighbor::score).reversed().thenComparingInt(Neighbor::row);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final long STARTUP_TIMEOUT_SECONDS = 120;
+
+    private final List<Shard> shards;
+    private final int columns;
+    private final ExecutorService executor;
+
+    private ShardCoordinator(List<Shard> shards, int columns, int connectionsPerShard) {
+        this.shards = shards;
+        this.columns = columns;
+        this.executor = Executors.newFixedThreadPool(shards.size() * connectionsPerShard, runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Vectorizes documents one at a time and streams the rows into shard files of consecutive rows
+     * with (nearly) equal sizes, so the full TF-IDF matrix is never built.
+     *
+     * @param vectorizer Vectorizer fitted on the training documents.
+     * @param documents  Preprocessed training documents.
+     * @param labels     The labels corresponding to each document.
+     * @param shardCount Number of shards.
+     * @param directory  Directory to write the shard files to.
+     * @return Paths of the shard files, in row order.
+     * @throws IOException if a shard file cannot be written.
+     */
+    public static List<Path> writeShards(TFIDFVectorizer vectorizer, List<List<String>> documents, List<String> labels,
+                                         int shardCount, Path directory) throws IOException {
+        if (vectorizer == null || documents == null || labels == null || documents.size() != labels.size()) {
+            throw new IllegalArgumentException("Vectorizer, documents and labels must be non-null, with one label per document.");
+        }
+        ShardWriter writer = new ShardWriter(directory, shardCount, documents.size(), vectorizer.getVocabulary().size());
+        try (writer) {
+            for (int i = 0; i < documents.size(); i++) {
+                writer.addRow(labels.get(i), vectorizer.transform(documents.get(i)));
+            }
+        }
+        return writer.getShardFiles();
+    }
+
+    /**
+     * Starts one local worker JVM per shard file and connects to them.
+     *
+     * @param shardFiles Shard files, in row order.
+     * @return The connected coordinator.
+     * @throws IOException if a worker cannot be started or reached.
+     */
+    public static ShardCoordinator launch(List<Path> shardFiles) throws IOException {
+        return launch(shardFiles, List.of());
+    }
+
+    /**
+     * Starts one local worker JVM per shard file and connects to them.
+     *
+     * @param shardFiles Shard files, in row order.
+     * @param jvmOptions Extra options for the worker JVMs (e.g. "-Xmx2g").
+     * @return The connected coordinator.
+     * @throws IOException if a worker cannot be started or reached.
+     */
+    public static ShardCoordinator launch(List<Path> shardFiles, List<String> jvmOptions) throws IOException {
+        return launch(shardFiles, jvmOptions, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Starts one local worker JVM per shard file and connects to them.
+     *
+     * @param shardFiles          Shard files, in row order.
+     * @param jvmOptions          Extra options for the worker JVMs (e.g. "-Xmx2g").
+     * @param connectionsPerShard Number of connections to each worker, i.e. the number of queries
+     *                            a worker answers in parallel.
+     * @return The connected coordinator.
+     * @throws IOException if a worker cannot be started or reached.
+     */
+    public static ShardCoordinator launch(List<Path> shardFiles, List<String> jvmOptions, int connectionsPerShard)
+            throws IOException {
+        if (shardFiles == null || shardFiles.isEmpty() || jvmOptions == null) {
+            throw new IllegalArgumentException("At least one shard file is required, and JVM options cannot be null.");
+        }
+        if (connectionsPerShard <= 0) {
+            throw new IllegalArgumentException("Number of connections per shard must be greater than 0.");
+        }
+
+        // Start all workers first so that they load their shards concurrently
+        String javaBin = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        List<Shard> shards = new ArrayList<>();
+        try {
+            for (Path shardFile : shardFiles) {
+                List<String> command = new ArrayList<>();
+                command.add(javaBin);
+                command.addAll(jvmOptions);
+                command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                        ShardWorker.class.getName(), shardFile.toString()));
+                processes.add(new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start());
+            }
+
+            int rowOffset = 0;
+            int columns = -1;
+            for (int i = 0; i < shardFiles.size(); i++) {
+                int[] header = readHeader(shardFiles.get(i));
+                if (columns != -1 && header[1] != columns) {
+                    throw new IOException("Shard files have different numbers of columns.");
+                }
+                columns = header[1];
+                int port = awaitPort(processes.get(i), shardFiles.get(i));
+                shards.add(new Shard(processes.get(i), port, rowOffset, connectionsPerShard));
+                rowOffset += header[0];
+            }
+            return new ShardCoordinator(shards, columns, connectionsPerShard);
+        } catch (IOException | RuntimeException e) {
+            for (Shard shard : shards) {
+                shard.closeQuietly();
+            }
+            processes.forEach(Process::destroy);
+            throw e;
+        }
+    }
+
+    /**
+     * Predicts the label for a given test document by voting over the global k nearest neighbors.
+     *
+     * @param testVector The TF-IDF vector for the test document.
+     * @param k          The number of nearest neighbors to consider.
+     * @param metric     The similarity metric to use (e.g., "cosine", "euclidean").
+     * @return The predicted label.
+     * @throws IOException if a worker cannot be reached.
+     */
+    public String predict(double[] testVector, int k, String metric) throws IOException {
+        return KNNClassifier.vote(nearestNeighbors(testVector, k, metric));
+    }
+
+    /**
+     * Finds the k training documents closest to a test document across all shards.
+     *
+     * @param testVector The TF-IDF vector for the test document.
+     * @param k          The number of nearest neighbors to find.
+     * @param metric     The similarity metric to use (e.g., "cosine", "euclidean").
+     * @return The nearest neighbors, closest first, with row indices into the full training set.
+     * @throws IOException if a worker cannot be reached.
+     */
+    public List<Neighbor> nearestNeighbors(double[] testVector, int k, String metric) throws IOException {
+        if (testVector == null || k <= 0 || metric == null) {
+            throw new IllegalArgumentException("Test vector and metric cannot be null, and k must be greater than 0.");
+        }
+        if (testVector.length != columns) {
+            throw new IllegalArgumentException("Test vector must have " + columns + " columns.");
+        }
+        SimilarityMetric.of(metric); // Reject unsupported metrics before anything is sent to the workers
+
+        // Encode the request once and send the same bytes to every shard
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream request = new DataOutputStream(buffer);
+        request.writeByte(ShardProtocol.QUERY);
+        request.writeInt(k);
+        request.writeUTF(metric);
+        ShardProtocol.writeVector(request, testVector);
+        byte[] requestBytes = buffer.toByteArray();
+
+        List<Future<List<Neighbor>>> partials = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            partials.add(executor.submit(() -> shard.query(requestBytes)));
+        }
+
+        List<Neighbor> merged = new ArrayList<>(k * shards.size());
+        for (Future<List<Neighbor>> partial : partials) {
+            merged.addAll(await(partial));
+        }
+        merged.sort(CLOSEST_FIRST);
+        return merged.size() > k ? new ArrayList<>(merged.subList(0, k)) : merged;
+    }
+
+    /**
+     * @return Number of shards (worker processes).
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Asks every worker to shut down and waits for the processes to exit.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (Shard shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    private static List<Neighbor> await(Future<List<Neighbor>> partial) throws IOException {
+        try {
+            return partial.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a shard.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof IllegalArgumentException rejected) {
+                throw rejected;
+            }
+            throw new IOException("Shard query failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    /**
+     * Reads the row and column counts from a shard file header.
+     */
+    private static int[] readHeader(Path shardFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(shardFile)))) {
+            if (in.readInt() != ShardProtocol.SHARD_FILE_MAGIC) {
+                throw new IOException("Not a shard file: " + shardFile);
+            }
+            return new int[]{in.readInt(), in.readInt()};
+        }
+    }
+
+    /**
+     * Waits for a worker to report that its shard is loaded and returns the port it listens on.
+     * A worker that does not report within {@value #STARTUP_TIMEOUT_SECONDS} seconds is destroyed.
+     */
+    private static int awaitPort(Process process, Path shardFile) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        FutureTask<String> readyLine = new FutureTask<>(reader::readLine);
+        Thread readerThread = new Thread(readyLine, "shard-startup");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        String line;
+        try {
+            line = readyLine.get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            process.destroy(); // Also ends the blocked read
+            throw new IOException("Shard worker did not start within " + STARTUP_TIMEOUT_SECONDS + " seconds for "
+                    + shardFile + ".");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroy();
+            throw new IOException("Interrupted while waiting for a shard worker to start.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to read the shard worker output for " + shardFile + ".", e.getCause());
+        }
+        if (line == null || !line.startsWith(ShardProtocol.READY_PREFIX)) {
+            throw new IOException("Shard worker failed to start for " + shardFile + ".");
+        }
+        return Integer.parseInt(line.substring(ShardProtocol.READY_PREFIX.length()).trim());
+    }
+
+    /**
+     * Pool of connections to one worker. Each query borrows a connection for its request and
+     * response, so up to one query per connection is in flight at a time. A connection goes back
+     * to the pool as it is only after a complete response; after an I/O error it is reopened.
+     */
+    private static class Shard {
+        private final Process process;
+        private final List<Connection> connections = new ArrayList<>();
+        private final BlockingQueue<Connection> idle;
+        private final int rowOffset;
+
+        Shard(Process process, int port, int rowOffset, int connectionCount) throws IOException {
+            this.process = process;
+            this.rowOffset = rowOffset;
+            this.idle = new ArrayBlockingQueue<>(connectionCount);
+            try {
+                for (int i = 0; i < connectionCount; i++) {
+                    Connection connection = new Connection(port);
+                    connections.add(connection);
+                    idle.add(connection);
+                }
+            } catch (IOException e) {
+                closeQuietly();
+                throw e;
+            }
+        }
+
+        List<Neighbor> query(byte[] request) throws IOException {
+            Connection connection;
+            try {
+                connection = idle.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a shard connection.", e);
+            }
+            boolean complete = false;
+            try {
+                connection.out.write(request);
+                connection.out.flush();
+                List<Neighbor> neighbors = ShardProtocol.readNeighbors(connection.in, rowOffset);
+                complete = true;
+                return neighbors;
+            } catch (IllegalArgumentException e) {
+                complete = true; // The worker rejected the query with a complete error response
+                throw e;
+            } finally {
+                if (!complete) {
+                    // The stream may be closed or out of sync, so never reuse it
+                    connection.reopen();
+                }
+                idle.add(connection);
+            }
+        }
+
+        void shutdown() {
+            Connection connection = idle.poll();
+            if (connection == null) {
+                connection = connections.get(0); // All connections busy; the worker closes them on exit
+            }
+            try {
+                connection.out.writeByte(ShardProtocol.SHUTDOWN);
+                connection.out.flush();
+            } catch (IOException e) {
+                System.err.println("Failed to send shutdown request to shard worker: " + e.getMessage());
+                process.destroy();
+            }
+            closeQuietly();
+            try {
+                if (!process.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroy();
+            }
+        }
+
+        void closeQuietly() {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * One socket to a worker. Requests on the connection are sent one at a time.
+     */
+    private static class Connection {
+        private final int port;
+        private volatile Socket socket;
+        private DataInputStream in;
+        private DataOutputStream out;
+
+        Connection(int port) throws IOException {
+            this.port = port;
+            open();
+        }
+
+        private void open() throws IOException {
+            Socket opened = new Socket(InetAddress.getLoopbackAddress(), port);
+            opened.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(opened.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(opened.getOutputStream()));
+            socket = opened;
+        }
+
+        /**
+         * Replaces the socket with a new one. If the worker cannot be reached the connection stays
+         * closed, and the next query on it fails and tries again.
+         */
+        void reopen() {
+            close();
+            try {
+                open();
+            } catch (IOException e) {
+                System.err.println("Failed to reconnect to shard worker: " + e.getMessage());
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.Nlp.knn.shard;
+
+import org.Nlp.knn.Neighbor;
+import org.Nlp.matrix.SparseOffHeapMatrix;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encoding shared by {@link ShardCoordinator} and {@link ShardWorker}.
+ * <p>
+ * Vectors are sent sparse (column, value pairs), since TF-IDF rows of tweets are almost all zeros.
+ * <pre>
+ * shard file:  int magic, int rows, int columns, rows x (UTF label, sparse vector)
+ * request:     byte QUERY, int k, UTF metric, sparse vector   |   byte SHUTDOWN
+ * response:    byte OK, int count, count x (int row, UTF label, double score)   |   byte ERROR, UTF message
+ * sparse vector: int nonZeros, nonZeros x (int column, double value)
+ * </pre>
+ */
+final class ShardProtocol {
+    static final int SHARD_FILE_MAGIC = 0x4E4C5053; // "NLPS"
+    static final byte QUERY = 1;
+    static final byte SHUTDOWN = 2;
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+    static final String READY_PREFIX = "READY ";
+
+    private ShardProtocol() {
+    }
+
+    /**
+     * Writes the header of a shard file; the rows follow as (UTF label, sparse vector) pairs.
+     */
+    static void writeShardHeader(DataOutputStream out, int rows, int columns) throws IOException {
+        out.writeInt(SHARD_FILE_MAGIC);
+        out.writeInt(rows);
+        out.writeInt(columns);
+    }
+
+    /**
+     * Reads a shard file into a sparse off-heap matrix and fills in the labels.
+     */
+    static SparseOffHeapMatrix readShard(DataInputStream in, List<String> labels) throws IOException {
+        if (in.readInt() != SHARD_FILE_MAGIC) {
+            throw new IOException("Not a shard file.");
+        }
+        int rows = in.readInt();
+        int columns = in.readInt();
+        SparseOffHeapMatrix.Builder builder = new SparseOffHeapMatrix.Builder(columns);
+        for (int row = 0; row < rows; row++) {
+            labels.add(in.readUTF());
+            int nonZeros = in.readInt();
+            int[] rowColumns = new int[nonZeros];
+            double[] rowValues = new double[nonZeros];
+            for (int p = 0; p < nonZeros; p++) {
+                rowColumns[p] = in.readInt();
+                rowValues[p] = in.readDouble();
+            }
+            builder.addRow(rowColumns, rowValues);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes the non-zero values of a dense vector.
+     */
+    static void writeVector(DataOutputStream out, double[] vector) throws IOException {
+        int nonZeros = 0;
+        for (double value : vector) {
+            if (value != 0.0) {
+                nonZeros++;
+            }
+        }
+        out.writeInt(nonZeros);
+        for (int j = 0; j < vector.length; j++) {
+            if (vector[j] != 0.0) {
+                out.writeInt(j);
+                out.writeDouble(vector[j]);
+            }
+        }
+    }
+
+    /**
+     * Reads a sparse vector into a dense array of the given dimension.
+     */
+    static double[] readVector(DataInputStream in, int columns) throws IOException {
+        double[] vector = new double[columns];
+        int nonZeros = in.readInt();
+        for (int p = 0; p < nonZeros; p++) {
+            int column = in.readInt();
+            if (column < 0 || column >= columns) {
+                throw new IOException("Column index out of range: " + column);
+            }
+            vector[column] = in.readDouble();
+        }
+        return vector;
+    }
+
+    static void writeNeighbors(DataOutputStream out, List<Neighbor> neighbors) throws IOException {
+        out.writeByte(OK);
+        out.writeInt(neighbors.size());
+        for (Neighbor neighbor : neighbors) {
+            out.writeInt(neighbor.row());
+            out.writeUTF(neighbor.label());
+            out.writeDouble(neighbor.score());
+        }
+    }
+
+    /**
+     * Writes an error response for a query the worker rejected; the connection stays usable.
+     */
+    static void writeError(DataOutputStream out, String message) throws IOException {
+        out.writeByte(ERROR);
+        out.writeUTF(message == null ? "" : message);
+    }
+
+    /**
+     * Reads neighbors, shifting their shard-local row indices by {@code rowOffset} to global indices.
+     *
+     * @throws IllegalArgumentException if the worker rejected the query. The response has then been
+     *                                  read completely, so the connection can still be used.
+     */
+    static List<Neighbor> readNeighbors(DataInputStream in, int rowOffset) throws IOException {
+        byte status = in.readByte();
+        if (status == ERROR) {
+            throw new IllegalArgumentException("Shard worker rejected the query: " + in.readUTF());
+        }
+        if (status != OK) {
+            throw new IOException("Unknown response status: " + status);
+        }
+        int count = in.readInt();
+        List<Neighbor> neighbors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int row = in.readInt();
+            String label = in.readUTF();
+            double score = in.readDouble();
+            neighbors.add(new Neighbor(rowOffset + row, label, score));
+        }
+        return neighbors;
+    }
+}
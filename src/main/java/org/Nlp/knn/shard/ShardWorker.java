@@ -0,0 +1,112 @@
+package org.Nlp.knn.shard;
+
+import org.Nlp.knn.KNNClassifier;
+import org.Nlp.matrix.FeatureMatrix;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Worker process of the sharded k-NN: loads one shard of the training set and answers
+ * nearest-neighbor queries from a {@link ShardCoordinator} over a socket on localhost.
+ * <p>
+ * Usage: {@code ShardWorker <shardFile> [port]}. Once the shard is loaded the worker prints
+ * {@code READY <port>} on standard output, so that a port of 0 (any free port) can be used.
+ */
+public class ShardWorker {
+    private final KNNClassifier classifier;
+    private final int columns;
+
+    /**
+     * Constructor for ShardWorker.
+     *
+     * @param shardFile Shard file written by {@link ShardCoordinator#writeShards}.
+     * @throws IOException if the shard file cannot be read.
+     */
+    public ShardWorker(Path shardFile) throws IOException {
+        List<String> labels = new ArrayList<>();
+        FeatureMatrix matrix;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(shardFile)))) {
+            matrix = ShardProtocol.readShard(in, labels);
+        }
+        this.classifier = new KNNClassifier(matrix, labels);
+        this.columns = matrix.columns();
+    }
+
+    /**
+     * Accepts coordinator connections until a shutdown request arrives. Each connection is served
+     * by its own thread, and requests on one connection are answered in order.
+     *
+     * @param serverSocket Socket to accept connections on.
+     */
+    public void serve(ServerSocket serverSocket) {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> handle(socket, serverSocket), "shard-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (SocketException e) {
+                return; // Server socket closed by a shutdown request
+            } catch (IOException e) {
+                System.err.println("Failed to accept a connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket socket, ServerSocket serverSocket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            socket.setTcpNoDelay(true);
+            while (true) {
+                byte request;
+                try {
+                    request = in.readByte();
+                } catch (EOFException e) {
+                    return; // Coordinator closed the connection
+                }
+                if (request == ShardProtocol.SHUTDOWN) {
+                    serverSocket.close();
+                    return;
+                }
+                if (request != ShardProtocol.QUERY) {
+                    throw new IOException("Unknown request type: " + request);
+                }
+                int k = in.readInt();
+                String metric = in.readUTF();
+                double[] query = ShardProtocol.readVector(in, columns);
+                try {
+                    ShardProtocol.writeNeighbors(out, classifier.nearestNeighbors(query, k, metric));
+                } catch (IllegalArgumentException e) {
+                    // The request was read completely, so report the error and keep the connection
+                    ShardProtocol.writeError(out, e.getMessage());
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Shard connection failed: " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: ShardWorker <shardFile> [port]");
+            System.exit(1);
+        }
+        ShardWorker worker = new ShardWorker(Path.of(args[0]));
+        int port = args.length == 2 ? Integer.parseInt(args[1]) : 0;
+        try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println(ShardProtocol.READY_PREFIX + serverSocket.getLocalPort());
+            System.out.flush();
+            worker.serve(serverSocket);
+        }
+    }
+}
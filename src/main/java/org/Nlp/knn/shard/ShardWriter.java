@@ -0,0 +1,144 @@
+package org.Nlp.knn.shard;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams training rows into shard files, one row at a time, so the training set never has to be
+ * held in memory as a whole. Rows are split into consecutive ranges of (nearly) equal size, in the
+ * order they are added; a shard file is opened when its first row arrives and closed after its last.
+ */
+public class ShardWriter implements Closeable {
+    private final Path directory;
+    private final int shardCount;
+    private final int totalRows;
+    private final int columns;
+    private final List<Path> shardFiles = new ArrayList<>();
+    private DataOutputStream out;
+    private int currentShard = -1;
+    private int rowsWritten;
+
+    /**
+     * Constructor for ShardWriter.
+     *
+     * @param directory  Directory to write the shard files to.
+     * @param shardCount Number of shards.
+     * @param totalRows  Total number of rows that will be added.
+     * @param columns    Number of columns (vocabulary size) of every row.
+     * @throws IOException if the directory cannot be created.
+     */
+    public ShardWriter(Path directory, int shardCount, int totalRows, int columns) throws IOException {
+        if (directory == null || columns <= 0) {
+            throw new IllegalArgumentException("Directory cannot be null, and the number of columns must be greater than 0.");
+        }
+        if (shardCount <= 0 || shardCount > totalRows) {
+            throw new IllegalArgumentException("Number of shards must be between 1 and the number of rows.");
+        }
+        this.directory = directory;
+        this.shardCount = shardCount;
+        this.totalRows = totalRows;
+        this.columns = columns;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Adds the next row from a dense vector, writing only its non-zero values.
+     *
+     * @param label Label of the row.
+     * @param row   Dense row with {@code columns} components.
+     * @throws IOException if the shard file cannot be written.
+     */
+    public void addRow(String label, double[] row) throws IOException {
+        if (row == null || row.length != columns) {
+            throw new IllegalArgumentException("Row must have " + columns + " columns.");
+        }
+        DataOutputStream shard = nextRow(label);
+        ShardProtocol.writeVector(shard, row);
+    }
+
+    /**
+     * Adds the next row from its non-zero values.
+     *
+     * @param label      Label of the row.
+     * @param rowColumns Column indices of the non-zero values.
+     * @param rowValues  The non-zero values.
+     * @throws IOException if the shard file cannot be written.
+     */
+    public void addRow(String label, int[] rowColumns, double[] rowValues) throws IOException {
+        if (rowColumns == null || rowValues == null || rowColumns.length != rowValues.length) {
+            throw new IllegalArgumentException("Row columns and values must be non-null and of equal length.");
+        }
+        for (int column : rowColumns) {
+            if (column < 0 || column >= columns) {
+                throw new IllegalArgumentException("Column index out of range: " + column);
+            }
+        }
+        DataOutputStream shard = nextRow(label);
+        shard.writeInt(rowColumns.length);
+        for (int p = 0; p < rowColumns.length; p++) {
+            shard.writeInt(rowColumns[p]);
+            shard.writeDouble(rowValues[p]);
+        }
+    }
+
+    /**
+     * @return Paths of the shard files written so far, in row order.
+     */
+    public List<Path> getShardFiles() {
+        return List.copyOf(shardFiles);
+    }
+
+    /**
+     * Closes the last shard file.
+     *
+     * @throws IOException if the file cannot be closed, or fewer rows were added than announced.
+     */
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+        if (rowsWritten != totalRows) {
+            throw new IOException("Expected " + totalRows + " rows but " + rowsWritten + " were written.");
+        }
+    }
+
+    /**
+     * Switches to the next shard file when the current one is full and writes the row label.
+     */
+    private DataOutputStream nextRow(String label) throws IOException {
+        if (label == null) {
+            throw new IllegalArgumentException("Label cannot be null.");
+        }
+        if (rowsWritten == totalRows) {
+            throw new IllegalStateException("All " + totalRows + " rows have already been written.");
+        }
+        while (rowsWritten == shardStart(currentShard + 1)) {
+            if (out != null) {
+                out.close();
+            }
+            currentShard++;
+            Path shardFile = directory.resolve("shard-" + currentShard + "-of-" + shardCount + ".bin");
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(shardFile)));
+            ShardProtocol.writeShardHeader(out, shardStart(currentShard + 1) - shardStart(currentShard), columns);
+            shardFiles.add(shardFile);
+        }
+        out.writeUTF(label);
+        rowsWritten++;
+        return out;
+    }
+
+    /**
+     * @return Index of the first row of a shard.
+     */
+    private int shardStart(int shard) {
+        return (int) ((long) totalRows * shard / shardCount);
+    }
+}
@@ -0,0 +1,96 @@
+package org.Nlp.matrix;
+
+/**
+ * Read-only document-term matrix used by the classifiers.
+ * <p>
+ * Similarity kernels are part of the interface so that each storage backend can compute them
+ * directly on its own layout instead of materializing rows as {@code double[]}.
+ */
+public interface FeatureMatrix {
+
+    /**
+     * @return Number of rows (documents).
+     */
+    int rows();
+
+    /**
+     * @return Number of columns (terms).
+     */
+    int columns();
+
+    /**
+     * Returns a single value of the matrix.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @return The value at the given position.
+     */
+    double get(int row, int column);
+
+    /**
+     * Copies a row into a new dense array.
+     *
+     * @param row Row index.
+     * @return Dense copy of the row.
+     */
+    double[] row(int row);
+
+    /**
+     * Calculates the dot product between a row and a dense vector.
+     *
+     * @param row    Row index.
+     * @param vector Dense vector with {@link #columns()} components.
+     * @return The dot product.
+     */
+    double dot(int row, double[] vector);
+
+    /**
+     * Returns the squared Euclidean norm of a row.
+     *
+     * @param row Row index.
+     * @return The squared norm.
+     */
+    double squaredNorm(int row);
+
+    /**
+     * Calculates the squared Euclidean distance between a row and a dense vector.
+     *
+     * @param row                 Row index.
+     * @param vector              Dense vector with {@link #columns()} components.
+     * @param vectorSquaredNorm   Squared norm of {@code vector}, as returned by {@link #squaredNorm(double[])}.
+     * @return The squared distance.
+     */
+    double squaredDistance(int row, double[] vector, double vectorSquaredNorm);
+
+    /**
+     * Creates a new matrix, using the same storage backend, containing the given rows in the given order.
+     *
+     * @param rowIndices Indices of the rows to copy.
+     * @return Matrix with {@code rowIndices.length} rows.
+     */
+    FeatureMatrix selectRows(int[] rowIndices);
+
+    /**
+     * Creates a view of the given rows, in the given order, without copying any values.
+     *
+     * @param rowIndices Indices of the rows to expose.
+     * @return View with {@code rowIndices.length} rows backed by this matrix.
+     */
+    default FeatureMatrix view(int[] rowIndices) {
+        return new RowSubsetMatrix(this, rowIndices);
+    }
+
+    /**
+     * Calculates the squared Euclidean norm of a dense vector.
+     *
+     * @param vector The vector.
+     * @return The squared norm.
+     */
+    static double squaredNorm(double[] vector) {
+        double sum = 0.0;
+        for (double value : vector) {
+            sum += value * value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,97 @@
+package org.Nlp.matrix;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Feature matrix backed by on-heap {@code double[]} rows.
+ */
+public class HeapMatrix implements FeatureMatrix {
+    private final double[][] data;
+    private final int columns;
+    private final double[] squaredNorms;
+
+    /**
+     * Constructor for HeapMatrix. The rows are used as is, not copied.
+     *
+     * @param data Matrix rows, all of the same length.
+     */
+    public HeapMatrix(double[][] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Matrix data cannot be null.");
+        }
+        this.data = data;
+        this.columns = data.length == 0 ? 0 : data[0].length;
+        this.squaredNorms = new double[data.length];
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == null || data[i].length != columns) {
+                throw new IllegalArgumentException("All matrix rows must be non-null and of equal length.");
+            }
+            squaredNorms[i] = FeatureMatrix.squaredNorm(data[i]);
+        }
+    }
+
+    /**
+     * Constructor for HeapMatrix. The rows are used as is, not copied.
+     *
+     * @param rows Matrix rows, all of the same length.
+     */
+    public HeapMatrix(List<double[]> rows) {
+        this(rows == null ? null : rows.toArray(new double[0][]));
+    }
+
+    @Override
+    public int rows() {
+        return data.length;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return data[row][column];
+    }
+
+    @Override
+    public double[] row(int row) {
+        return Arrays.copyOf(data[row], columns);
+    }
+
+    @Override
+    public double dot(int row, double[] vector) {
+        double[] values = data[row];
+        double sum = 0.0;
+        for (int i = 0; i < columns; i++) {
+            sum += values[i] * vector[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double squaredNorm(int row) {
+        return squaredNorms[row];
+    }
+
+    @Override
+    public double squaredDistance(int row, double[] vector, double vectorSquaredNorm) {
+        double[] values = data[row];
+        double sum = 0.0;
+        for (int i = 0; i < columns; i++) {
+            double difference = values[i] - vector[i];
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    @Override
+    public FeatureMatrix selectRows(int[] rowIndices) {
+        double[][] selected = new double[rowIndices.length][];
+        for (int i = 0; i < rowIndices.length; i++) {
+            selected[i] = row(rowIndices[i]);
+        }
+        return new HeapMatrix(selected);
+    }
+}
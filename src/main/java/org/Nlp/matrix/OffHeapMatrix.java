@@ -0,0 +1,220 @@
+package org.Nlp.matrix;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Dense feature matrix stored off-heap in row-major order.
+ * <p>
+ * Values live in direct buffers, so a large matrix adds almost nothing to the heap and is never
+ * moved or scanned by the garbage collector. A single direct buffer is limited to 2 GB, so the
+ * rows are split over as many contiguous chunks as needed; a row never spans two chunks.
+ */
+public class OffHeapMatrix implements FeatureMatrix {
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE - 7;
+
+    private final DoubleBuffer[] chunks;
+    private final int rowsPerChunk;
+    private final int rows;
+    private final int columns;
+    private final double[] squaredNorms;
+
+    private OffHeapMatrix(DoubleBuffer[] chunks, int rowsPerChunk, int rows, int columns) {
+        this.chunks = chunks;
+        this.rowsPerChunk = rowsPerChunk;
+        this.rows = rows;
+        this.columns = columns;
+        this.squaredNorms = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            DoubleBuffer chunk = chunk(i);
+            int offset = offset(i);
+            double sum = 0.0;
+            for (int j = 0; j < columns; j++) {
+                double value = chunk.get(offset + j);
+                sum += value * value;
+            }
+            squaredNorms[i] = sum;
+        }
+    }
+
+    /**
+     * Copies on-heap rows into a new off-heap matrix.
+     *
+     * @param data Matrix rows, all of the same length.
+     * @return The off-heap copy.
+     */
+    public static OffHeapMatrix fromRows(double[][] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Matrix data cannot be null.");
+        }
+        Builder builder = new Builder(data.length, data.length == 0 ? 0 : data[0].length);
+        for (int i = 0; i < data.length; i++) {
+            builder.setRow(i, data[i]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Copies any feature matrix into a new off-heap matrix.
+     *
+     * @param matrix The matrix to copy.
+     * @return The off-heap copy.
+     */
+    public static OffHeapMatrix copyOf(FeatureMatrix matrix) {
+        Builder builder = new Builder(matrix.rows(), matrix.columns());
+        for (int i = 0; i < matrix.rows(); i++) {
+            builder.setRow(i, matrix.row(i));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return chunk(row).get(offset(row) + column);
+    }
+
+    @Override
+    public double[] row(int row) {
+        double[] values = new double[columns];
+        chunk(row).get(offset(row), values, 0, columns);
+        return values;
+    }
+
+    @Override
+    public double dot(int row, double[] vector) {
+        DoubleBuffer chunk = chunk(row);
+        int offset = offset(row);
+        double sum = 0.0;
+        for (int j = 0; j < columns; j++) {
+            sum += chunk.get(offset + j) * vector[j];
+        }
+        return sum;
+    }
+
+    @Override
+    public double squaredNorm(int row) {
+        return squaredNorms[row];
+    }
+
+    @Override
+    public double squaredDistance(int row, double[] vector, double vectorSquaredNorm) {
+        DoubleBuffer chunk = chunk(row);
+        int offset = offset(row);
+        double sum = 0.0;
+        for (int j = 0; j < columns; j++) {
+            double difference = chunk.get(offset + j) - vector[j];
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    @Override
+    public FeatureMatrix selectRows(int[] rowIndices) {
+        Builder builder = new Builder(rowIndices.length, columns);
+        for (int i = 0; i < rowIndices.length; i++) {
+            builder.setRow(i, row(rowIndices[i]));
+        }
+        return builder.build();
+    }
+
+    private DoubleBuffer chunk(int row) {
+        return chunks[row / rowsPerChunk];
+    }
+
+    private int offset(int row) {
+        return (row % rowsPerChunk) * columns;
+    }
+
+    /**
+     * Fills a zero-initialized off-heap matrix value by value, without an on-heap copy.
+     */
+    public static class Builder {
+        private final DoubleBuffer[] chunks;
+        private final int rowsPerChunk;
+        private final int rows;
+        private final int columns;
+        private boolean built;
+
+        /**
+         * Allocates the off-heap storage for the matrix.
+         *
+         * @param rows    Number of rows.
+         * @param columns Number of columns.
+         */
+        public Builder(int rows, int columns) {
+            if (rows < 0 || columns < 0) {
+                throw new IllegalArgumentException("Matrix dimensions cannot be negative.");
+            }
+            long rowBytes = (long) columns * Double.BYTES;
+            if (rowBytes > MAX_CHUNK_BYTES) {
+                throw new IllegalArgumentException("A single row of " + columns + " columns does not fit in a direct buffer.");
+            }
+            this.rows = rows;
+            this.columns = columns;
+            this.rowsPerChunk = rowBytes == 0 ? Math.max(rows, 1) : (int) Math.min(Math.max(rows, 1), MAX_CHUNK_BYTES / rowBytes);
+
+            int chunkCount = (rows + rowsPerChunk - 1) / rowsPerChunk;
+            this.chunks = new DoubleBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                int chunkRows = Math.min(rowsPerChunk, rows - i * rowsPerChunk);
+                chunks[i] = ByteBuffer.allocateDirect((int) (chunkRows * rowBytes))
+                        .order(ByteOrder.nativeOrder())
+                        .asDoubleBuffer();
+            }
+        }
+
+        /**
+         * Sets a single value.
+         *
+         * @param row    Row index.
+         * @param column Column index.
+         * @param value  The value.
+         */
+        public void set(int row, int column, double value) {
+            checkNotBuilt();
+            chunks[row / rowsPerChunk].put((row % rowsPerChunk) * columns + column, value);
+        }
+
+        /**
+         * Sets a whole row.
+         *
+         * @param row    Row index.
+         * @param values Dense row values.
+         */
+        public void setRow(int row, double[] values) {
+            checkNotBuilt();
+            if (values == null || values.length != columns) {
+                throw new IllegalArgumentException("Row must be non-null and have " + columns + " values.");
+            }
+            chunks[row / rowsPerChunk].put((row % rowsPerChunk) * columns, values, 0, columns);
+        }
+
+        /**
+         * Finishes the matrix. The builder cannot be used afterwards.
+         *
+         * @return The off-heap matrix.
+         */
+        public OffHeapMatrix build() {
+            checkNotBuilt();
+            built = true;
+            return new OffHeapMatrix(chunks, rowsPerChunk, rows, columns);
+        }
+
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("Matrix has already been built.");
+            }
+        }
+    }
+}
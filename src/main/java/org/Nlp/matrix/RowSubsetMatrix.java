@@ -0,0 +1,82 @@
+package org.Nlp.matrix;
+
+/**
+ * A view over selected rows of another matrix. No values are copied; every access is
+ * forwarded to the underlying matrix with the row index translated.
+ */
+public class RowSubsetMatrix implements FeatureMatrix {
+    private final FeatureMatrix base;
+    private final int[] rowIndices;
+
+    /**
+     * Constructor for RowSubsetMatrix.
+     *
+     * @param base       The underlying matrix.
+     * @param rowIndices Rows of {@code base} exposed by this view, in order.
+     */
+    public RowSubsetMatrix(FeatureMatrix base, int[] rowIndices) {
+        if (base == null || rowIndices == null) {
+            throw new IllegalArgumentException("Base matrix and row indices cannot be null.");
+        }
+        for (int row : rowIndices) {
+            if (row < 0 || row >= base.rows()) {
+                throw new IllegalArgumentException("Row index out of range: " + row);
+            }
+        }
+        this.base = base;
+        this.rowIndices = rowIndices;
+    }
+
+    @Override
+    public int rows() {
+        return rowIndices.length;
+    }
+
+    @Override
+    public int columns() {
+        return base.columns();
+    }
+
+    @Override
+    public double get(int row, int column) {
+        return base.get(rowIndices[row], column);
+    }
+
+    @Override
+    public double[] row(int row) {
+        return base.row(rowIndices[row]);
+    }
+
+    @Override
+    public double dot(int row, double[] vector) {
+        return base.dot(rowIndices[row], vector);
+    }
+
+    @Override
+    public double squaredNorm(int row) {
+        return base.squaredNorm(rowIndices[row]);
+    }
+
+    @Override
+    public double squaredDistance(int row, double[] vector, double vectorSquaredNorm) {
+        return base.squaredDistance(rowIndices[row], vector, vectorSquaredNorm);
+    }
+
+    @Override
+    public FeatureMatrix selectRows(int[] rows) {
+        return base.selectRows(translate(rows));
+    }
+
+    @Override
+    public FeatureMatrix view(int[] rows) {
+        return new RowSubsetMatrix(base, translate(rows));
+    }
+
+    private int[] translate(int[] rows) {
+        int[] translated = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            translated[i] = rowIndices[rows[i]];
+        }
+        return translated;
+    }
+}
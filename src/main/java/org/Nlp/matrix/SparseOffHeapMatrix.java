@@ -0,0 +1,269 @@
+package org.Nlp.matrix;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Sparse feature matrix stored off-heap in compressed sparse row (CSR) layout.
+ * <p>
+ * TF-IDF rows of short texts have only a handful of non-zero values, so storing just those,
+ * together with their column indices, is far smaller than a dense matrix and lets the
+ * similarity kernels skip the zero columns entirely.
+ */
+public class SparseOffHeapMatrix implements FeatureMatrix {
+    private final IntBuffer rowOffsets;
+    private final IntBuffer columnIndices;
+    private final DoubleBuffer values;
+    private final int rows;
+    private final int columns;
+    private final double[] squaredNorms;
+
+    private SparseOffHeapMatrix(IntBuffer rowOffsets, IntBuffer columnIndices, DoubleBuffer values, int rows, int columns) {
+        this.rowOffsets = rowOffsets;
+        this.columnIndices = columnIndices;
+        this.values = values;
+        this.rows = rows;
+        this.columns = columns;
+        this.squaredNorms = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            double sum = 0.0;
+            for (int p = rowOffsets.get(i); p < rowOffsets.get(i + 1); p++) {
+                sum += values.get(p) * values.get(p);
+            }
+            squaredNorms[i] = sum;
+        }
+    }
+
+    /**
+     * Copies any feature matrix into a new sparse off-heap matrix, dropping zero values.
+     *
+     * @param matrix The matrix to copy.
+     * @return The sparse off-heap copy.
+     */
+    public static SparseOffHeapMatrix copyOf(FeatureMatrix matrix) {
+        Builder builder = new Builder(matrix.columns());
+        for (int i = 0; i < matrix.rows(); i++) {
+            builder.addDenseRow(matrix.row(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return Number of stored non-zero values.
+     */
+    public int nonZeros() {
+        return rowOffsets.get(rows);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int columns() {
+        return columns;
+    }
+
+    @Override
+    public double get(int row, int column) {
+        for (int p = rowOffsets.get(row); p < rowOffsets.get(row + 1); p++) {
+            if (columnIndices.get(p) == column) {
+                return values.get(p);
+            }
+        }
+        return 0.0;
+    }
+
+    @Override
+    public double[] row(int row) {
+        double[] dense = new double[columns];
+        for (int p = rowOffsets.get(row); p < rowOffsets.get(row + 1); p++) {
+            dense[columnIndices.get(p)] = values.get(p);
+        }
+        return dense;
+    }
+
+    @Override
+    public double dot(int row, double[] vector) {
+        double sum = 0.0;
+        for (int p = rowOffsets.get(row); p < rowOffsets.get(row + 1); p++) {
+            sum += values.get(p) * vector[columnIndices.get(p)];
+        }
+        return sum;
+    }
+
+    @Override
+    public double squaredNorm(int row) {
+        return squaredNorms[row];
+    }
+
+    @Override
+    public double squaredDistance(int row, double[] vector, double vectorSquaredNorm) {
+        // Columns missing from the row contribute vector[j]^2, which the full vector norm already covers
+        double sum = vectorSquaredNorm;
+        for (int p = rowOffsets.get(row); p < rowOffsets.get(row + 1); p++) {
+            double query = vector[columnIndices.get(p)];
+            double difference = values.get(p) - query;
+            sum += difference * difference - query * query;
+        }
+        return Math.max(sum, 0.0);
+    }
+
+    @Override
+    public FeatureMatrix selectRows(int[] rowIndices) {
+        Builder builder = new Builder(columns);
+        for (int row : rowIndices) {
+            int start = rowOffsets.get(row);
+            int end = rowOffsets.get(row + 1);
+            int[] rowColumns = new int[end - start];
+            double[] rowValues = new double[end - start];
+            columnIndices.get(start, rowColumns, 0, rowColumns.length);
+            values.get(start, rowValues, 0, rowValues.length);
+            builder.addRow(rowColumns, rowValues);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Appends rows one by one into growing off-heap buffers.
+     */
+    public static class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final int columns;
+        private IntBuffer rowOffsets = allocateInts(INITIAL_CAPACITY);
+        private IntBuffer columnIndices = allocateInts(INITIAL_CAPACITY);
+        private DoubleBuffer values = allocateDoubles(INITIAL_CAPACITY);
+        private int rows;
+        private int nonZeros;
+        private boolean built;
+
+        /**
+         * Constructor for the builder.
+         *
+         * @param columns Number of columns of the matrix.
+         */
+        public Builder(int columns) {
+            if (columns < 0) {
+                throw new IllegalArgumentException("Matrix dimensions cannot be negative.");
+            }
+            this.columns = columns;
+            rowOffsets.put(0, 0);
+        }
+
+        /**
+         * Appends a row given as parallel arrays of column indices and values.
+         *
+         * @param rowColumns Column indices of the non-zero values.
+         * @param rowValues  The non-zero values.
+         */
+        public void addRow(int[] rowColumns, double[] rowValues) {
+            checkNotBuilt();
+            if (rowColumns == null || rowValues == null || rowColumns.length != rowValues.length) {
+                throw new IllegalArgumentException("Column indices and values must be non-null and of equal length.");
+            }
+            ensureCapacity(rowColumns.length);
+            for (int i = 0; i < rowColumns.length; i++) {
+                if (rowColumns[i] < 0 || rowColumns[i] >= columns) {
+                    throw new IllegalArgumentException("Column index out of range: " + rowColumns[i]);
+                }
+                if (rowValues[i] != 0.0) {
+                    columnIndices.put(nonZeros, rowColumns[i]);
+                    values.put(nonZeros, rowValues[i]);
+                    nonZeros++;
+                }
+            }
+            rows++;
+            rowOffsets.put(rows, nonZeros);
+        }
+
+        /**
+         * Appends a dense row, storing only its non-zero values.
+         *
+         * @param denseRow Dense row values.
+         */
+        public void addDenseRow(double[] denseRow) {
+            if (denseRow == null || denseRow.length != columns) {
+                throw new IllegalArgumentException("Row must be non-null and have " + columns + " values.");
+            }
+            int count = 0;
+            for (double value : denseRow) {
+                if (value != 0.0) {
+                    count++;
+                }
+            }
+            int[] rowColumns = new int[count];
+            double[] rowValues = new double[count];
+            for (int j = 0, p = 0; j < denseRow.length; j++) {
+                if (denseRow[j] != 0.0) {
+                    rowColumns[p] = j;
+                    rowValues[p++] = denseRow[j];
+                }
+            }
+            addRow(rowColumns, rowValues);
+        }
+
+        /**
+         * Finishes the matrix. The builder cannot be used afterwards.
+         *
+         * @return The sparse off-heap matrix.
+         */
+        public SparseOffHeapMatrix build() {
+            checkNotBuilt();
+            built = true;
+            return new SparseOffHeapMatrix(rowOffsets, columnIndices, values, rows, columns);
+        }
+
+        private void ensureCapacity(int additionalValues) {
+            if (rows + 2 > rowOffsets.capacity()) {
+                rowOffsets = copyInts(rowOffsets, grow(rowOffsets.capacity(), rows + 2), rows + 1);
+            }
+            long required = (long) nonZeros + additionalValues;
+            if (required > values.capacity()) {
+                int capacity = grow(values.capacity(), required);
+                columnIndices = copyInts(columnIndices, capacity, nonZeros);
+                values = copyDoubles(values, capacity, nonZeros);
+            }
+        }
+
+        private void checkNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("Matrix has already been built.");
+            }
+        }
+
+        private static int grow(int capacity, long required) {
+            long grown = Math.max((long) capacity * 2, required);
+            if (grown * Double.BYTES > Integer.MAX_VALUE) {
+                if (required * Double.BYTES > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Too many non-zero values for a sparse off-heap matrix.");
+                }
+                grown = Integer.MAX_VALUE / Double.BYTES;
+            }
+            return (int) grown;
+        }
+
+        private static IntBuffer allocateInts(int capacity) {
+            return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+
+        private static DoubleBuffer allocateDoubles(int capacity) {
+            return ByteBuffer.allocateDirect(capacity * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+
+        private static IntBuffer copyInts(IntBuffer source, int capacity, int length) {
+            IntBuffer copy = allocateInts(capacity);
+            copy.put(0, source, 0, length);
+            return copy;
+        }
+
+        private static DoubleBuffer copyDoubles(DoubleBuffer source, int capacity, int length) {
+            DoubleBuffer copy = allocateDoubles(capacity);
+            copy.put(0, source, 0, length);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.Nlp.pipeline;
+
+import org.Nlp.TfIdf.TFIDFVectorizer;
+import org.Nlp.knn.Classifier;
+import org.Nlp.preprocessing.Preprocessor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Classifies raw texts (preprocess, vectorize, predict) with a {@link PredictionCache} in front.
+ * <p>
+ * A text is first looked up by its normalized form, which catches exact duplicates such as
+ * retweets and bot posts without any preprocessing. On a miss it is preprocessed and looked up
+ * again by its token multiset, which catches texts that differ only in
+ * punctuation, stopwords, word order or inflection; only then is it vectorized and classified.
+ * Replacing the model with {@link #updateModel} invalidates every cached prediction.
+ */
+public class ClassificationPipeline {
+    private final Preprocessor preprocessor;
+    private final PredictionCache cache;
+    private volatile Model model;
+
+    private final AtomicLong textHits = new AtomicLong();
+    private final AtomicLong tokenHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor for ClassificationPipeline.
+     *
+     * @param preprocessor The preprocessor the model was trained with.
+     * @param vectorizer   The fitted TF-IDF vectorizer.
+     * @param classifier   The trained classifier.
+     * @param cache        Cache of predictions.
+     */
+    public ClassificationPipeline(Preprocessor preprocessor, TFIDFVectorizer vectorizer, Classifier classifier,
+                                  PredictionCache cache) {
+        if (preprocessor == null || vectorizer == null || classifier == null || cache == null) {
+            throw new IllegalArgumentException("Preprocessor, vectorizer, classifier and cache cannot be null.");
+        }
+        this.preprocessor = preprocessor;
+        this.cache = cache;
+        this.model = new Model(vectorizer, classifier, 0);
+    }
+
+    /**
+     * Predicts the label of a raw text, serving repeated content from the cache.
+     *
+     * @param text Raw text.
+     * @return The predicted label.
+     */
+    public String predict(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Text cannot be null.");
+        }
+        Model current = model;
+
+        PredictionCache.Key textKey = PredictionCache.textKey(text);
+        String label = cache.get(textKey, current.version());
+        if (label != null) {
+            textHits.incrementAndGet();
+            return label;
+        }
+
+        List<String> tokens = preprocessor.preprocess(text);
+        PredictionCache.Key tokenKey = PredictionCache.tokenKey(tokens);
+        label = cache.get(tokenKey, current.version());
+        if (label != null) {
+            tokenHits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            label = current.classifier().predict(current.vectorizer().transform(tokens));
+            cache.put(tokenKey, label, current.version());
+        }
+        cache.put(textKey, label, current.version());
+        return label;
+    }
+
+    /**
+     * Replaces the vectorizer and classifier (e.g. after retraining or re-indexing) and drops all cached predictions.
+     *
+     * @param vectorizer The fitted TF-IDF vectorizer.
+     * @param classifier The trained classifier.
+     */
+    public synchronized void updateModel(TFIDFVectorizer vectorizer, Classifier classifier) {
+        if (vectorizer == null || classifier == null) {
+            throw new IllegalArgumentException("Vectorizer and classifier cannot be null.");
+        }
+        model = new Model(vectorizer, classifier, model.version() + 1);
+        cache.clear();
+    }
+
+    /**
+     * Returns the cache statistics since the pipeline was created.
+     *
+     * @return The statistics.
+     */
+    public CacheStatistics getCacheStatistics() {
+        return new CacheStatistics(textHits.get(), tokenHits.get(), misses.get(),
+                cache.getEvictionCount(), cache.getExpirationCount(), cache.size());
+    }
+
+    /**
+     * Cache statistics of a pipeline.
+     *
+     * @param textHits    Predictions served by the normalized-text key, without preprocessing.
+     * @param tokenHits   Predictions served by the token-multiset key, after preprocessing.
+     * @param misses      Predictions computed by the classifier.
+     * @param evictions   Entries evicted because the cache was full.
+     * @param expirations Entries dropped because their time to live had passed.
+     * @param size        Current number of cached entries.
+     */
+    public record CacheStatistics(long textHits, long tokenHits, long misses, long evictions, long expirations,
+                                  int size) {
+        /**
+         * @return Fraction of predictions served from the cache.
+         */
+        public double hitRate() {
+            long requests = textHits + tokenHits + misses;
+            return requests == 0 ? 0.0 : (double) (textHits + tokenHits) / requests;
+        }
+    }
+
+    private record Model(TFIDFVectorizer vectorizer, Classifier classifier, long version) {
+    }
+}
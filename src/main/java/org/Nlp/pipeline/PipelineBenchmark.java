@@ -0,0 +1,170 @@
+package org.Nlp.pipeline;
+
+import org.Nlp.TfIdf.TFIDFVectorizer;
+import org.Nlp.TfIdf.VocabularyPruning;
+import org.Nlp.dataLoader.DataLoader;
+import org.Nlp.knn.Classifier;
+import org.Nlp.knn.ClassifierTrainer;
+import org.Nlp.preprocessing.Preprocessor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Runs the tweet corpus through a {@link ClassificationPipeline} and compares the cached pipeline
+ * with the uncached path (preprocess, vectorize, predict on every request).
+ * <p>
+ * The workload mixes fresh texts with exact repeats of a small set of popular texts (as retweets
+ * and bot posts are) and with near-duplicates of them: the same text with different case and
+ * whitespace, which hits the normalized-text key, and with its words shuffled, which hits the
+ * token key. After the first run the model is replaced with {@link ClassificationPipeline#updateModel}
+ * and the workload is replayed, which starts again from an empty cache.
+ */
+public class PipelineBenchmark {
+    private static final int K = 3;
+    private static final int UPDATED_K = 5;
+    private static final String METRIC = "cosine";
+    private static final int MAX_QUERIES = 5000;
+    private static final double POPULAR_FRACTION = 0.05;
+    private static final int CACHE_SIZE = 10_000;
+    private static final Duration CACHE_TTL = Duration.ofMinutes(10);
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+
+    public static void main(String[] args) {
+        try {
+            // Same corpus and features as Main
+            DataLoader dataLoader = new DataLoader();
+            Map<String, String> classFolders = Map.of(
+                    "Positive", "src/main/java/org/Nlp/tweets/1",
+                    "Negative", "src/main/java/org/Nlp/tweets/2",
+                    "Neutral", "src/main/java/org/Nlp/tweets/3"
+            );
+            Preprocessor preprocessor = new Preprocessor(null);
+            Map<String, List<List<String>>> classTokens = dataLoader.loadPreprocessedData(
+                    classFolders, preprocessor, Path.of("preprocessing_cache.bin"));
+            Map<String, List<String>> classTexts = dataLoader.getAllData();
+            List<List<String>> documents = new ArrayList<>();
+            List<String> labels = new ArrayList<>();
+            List<String> texts = new ArrayList<>();
+            for (Map.Entry<String, List<List<String>>> entry : new TreeMap<>(classTokens).entrySet()) {
+                List<String> rawTexts = classTexts.get(entry.getKey());
+                for (int i = 0; i < entry.getValue().size(); i++) {
+                    if (!entry.getValue().get(i).isEmpty()) {
+                        documents.add(entry.getValue().get(i));
+                        labels.add(entry.getKey());
+                        texts.add(rawTexts.get(i));
+                    }
+                }
+            }
+
+            TFIDFVectorizer vectorizer = new TFIDFVectorizer(new VocabularyPruning(2, 1.0, 0));
+            vectorizer.fitParallel(documents);
+            Classifier classifier = ClassifierTrainer.knn(K, METRIC).train(vectorizer.getSparseOffHeapTFIDFMatrix(), labels);
+
+            List<String> workload = buildWorkload(texts, new Random(42));
+            System.out.println("Classifying " + workload.size() + " requests built from " + texts.size()
+                    + " documents (k=" + K + ", " + METRIC + ").");
+
+            // Uncached path: every request is preprocessed, vectorized and classified
+            List<String> expected = new ArrayList<>(workload.size());
+            long[] uncachedNanos = new long[workload.size()];
+            for (int i = 0; i < workload.size(); i++) {
+                long start = System.nanoTime();
+                expected.add(classifier.predict(vectorizer.transform(preprocessor.preprocess(workload.get(i)))));
+                uncachedNanos[i] = System.nanoTime() - start;
+            }
+
+            ClassificationPipeline pipeline = new ClassificationPipeline(preprocessor, vectorizer, classifier,
+                    new PredictionCache(CACHE_SIZE, CACHE_TTL));
+            long[] cachedNanos = new long[workload.size()];
+            int agreements = 0;
+            for (int i = 0; i < workload.size(); i++) {
+                long start = System.nanoTime();
+                String label = pipeline.predict(workload.get(i));
+                cachedNanos[i] = System.nanoTime() - start;
+                if (label.equals(expected.get(i))) {
+                    agreements++;
+                }
+            }
+
+            System.out.printf("%-10s %12s %12s %12s%n", "Path", "Mean (us)", "p50 (us)", "p95 (us)");
+            printRow("uncached", uncachedNanos);
+            printRow("cached", cachedNanos);
+            System.out.printf("Agreement with the uncached path: %.1f%%%n", 100.0 * agreements / workload.size());
+            printStatistics("Cache after the first run", pipeline.getCacheStatistics());
+
+            // Replacing the model drops every cached prediction, so the replay starts with misses again
+            Classifier updated = ClassifierTrainer.knn(UPDATED_K, METRIC).train(vectorizer.getSparseOffHeapTFIDFMatrix(), labels);
+            pipeline.updateModel(vectorizer, updated);
+            System.out.println();
+            System.out.println("Model updated (k=" + UPDATED_K + "), cached entries left: "
+                    + pipeline.getCacheStatistics().size());
+            long[] replayNanos = new long[workload.size()];
+            for (int i = 0; i < workload.size(); i++) {
+                long start = System.nanoTime();
+                pipeline.predict(workload.get(i));
+                replayNanos[i] = System.nanoTime() - start;
+            }
+            System.out.printf("%-10s %12s %12s %12s%n", "Path", "Mean (us)", "p50 (us)", "p95 (us)");
+            printRow("replay", replayNanos);
+            printStatistics("Cache after the replay (both runs)", pipeline.getCacheStatistics());
+        } catch (IOException e) {
+            System.err.println("Pipeline benchmark failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mixes fresh texts with exact repeats and near-duplicates of a small set of popular texts.
+     */
+    private static List<String> buildWorkload(List<String> texts, Random random) {
+        int popularCount = Math.max(1, (int) (texts.size() * POPULAR_FRACTION));
+        List<String> popular = new ArrayList<>(texts);
+        Collections.shuffle(popular, random);
+        popular = popular.subList(0, popularCount);
+
+        int queryCount = Math.min(MAX_QUERIES, texts.size() * 2);
+        List<String> workload = new ArrayList<>(queryCount);
+        for (int i = 0; i < queryCount; i++) {
+            double draw = random.nextDouble();
+            if (draw < 0.4) {
+                workload.add(texts.get(random.nextInt(texts.size())));
+            } else if (draw < 0.7) {
+                workload.add(popular.get(random.nextInt(popularCount)));
+            } else if (draw < 0.85) {
+                workload.add(changeCaseAndSpacing(popular.get(random.nextInt(popularCount))));
+            } else {
+                workload.add(shuffleWords(popular.get(random.nextInt(popularCount)), random));
+            }
+        }
+        return workload;
+    }
+
+    private static String changeCaseAndSpacing(String text) {
+        return "  " + text.toUpperCase(TURKISH).replace(" ", "   ") + " ";
+    }
+
+    private static String shuffleWords(String text, Random random) {
+        List<String> words = new ArrayList<>(Arrays.asList(text.trim().split("\\s+")));
+        Collections.shuffle(words, random);
+        return String.join(" ", words);
+    }
+
+    private static void printRow(String name, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-10s %12.1f %12.1f %12.1f%n", name,
+                Arrays.stream(sorted).average().orElse(0) / 1e3,
+                sorted[sorted.length / 2] / 1e3,
+                sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.95))] / 1e3);
+    }
+
+    private static void printStatistics(String title, ClassificationPipeline.CacheStatistics statistics) {
+        System.out.println(title + ":");
+        System.out.printf("  Text hits: %d, token hits: %d, misses: %d, hit rate: %.1f%%%n",
+                statistics.textHits(), statistics.tokenHits(), statistics.misses(), statistics.hitRate() * 100);
+        System.out.println("  Evictions: " + statistics.evictions() + ", expirations: " + statistics.expirations()
+                + ", cached entries: " + statistics.size());
+    }
+}
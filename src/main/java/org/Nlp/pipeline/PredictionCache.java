@@ -0,0 +1,203 @@
+package org.Nlp.pipeline;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Bounded cache of predicted labels, keyed by normalized content.
+ * <p>
+ * A {@link Key} holds the normalized content together with its 64-bit hash. The hash only picks
+ * the bucket; a hit also requires equal content, so two texts whose hashes collide never share
+ * a cached label.
+ * <p>
+ * Entries are evicted least-recently-used first once the cache is full, and expire after a fixed
+ * time to live. Every entry records the version of the model that produced it; an entry from
+ * another model version is never returned, so a prediction that finishes after a model update
+ * cannot leak the old model's answer into the cache.
+ */
+public class PredictionCache {
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long TOKEN_KEY_SEED = 0x9e3779b97f4a7c15L; // Separates token keys from text keys
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, CachedPrediction> entries;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * Constructor for PredictionCache.
+     *
+     * @param maxEntries Maximum number of cached predictions.
+     * @param ttl        How long a prediction stays valid.
+     */
+    public PredictionCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0 || ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Maximum cache size and time to live must be greater than 0.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedPrediction> eldest) {
+                if (size() > PredictionCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached label for a key if it was produced by the given model version and has not expired.
+     *
+     * @param key          Content key, see {@link #textKey(String)} and {@link #tokenKey(List)}.
+     * @param modelVersion Version of the model currently in use.
+     * @return The cached label, or null on a miss.
+     */
+    public synchronized String get(Key key, long modelVersion) {
+        CachedPrediction entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.modelVersion() != modelVersion) {
+            entries.remove(key);
+            return null;
+        }
+        if (System.nanoTime() - entry.createdNanos() > ttlNanos) {
+            entries.remove(key);
+            expirations++;
+            return null;
+        }
+        return entry.label();
+    }
+
+    /**
+     * Stores a prediction.
+     *
+     * @param key          Content key.
+     * @param label        Predicted label.
+     * @param modelVersion Version of the model that made the prediction.
+     */
+    public synchronized void put(Key key, String label, long modelVersion) {
+        entries.put(key, new CachedPrediction(label, modelVersion, System.nanoTime()));
+    }
+
+    /**
+     * Removes all cached predictions.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return Number of cached predictions.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Number of entries evicted because the cache was full.
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * @return Number of entries dropped because their time to live had passed.
+     */
+    public synchronized long getExpirationCount() {
+        return expirations;
+    }
+
+    /**
+     * Normalizes a text the way every tokenizer sees it anyway: lowercased with the Turkish locale,
+     * leading and trailing whitespace removed, and inner whitespace runs collapsed.
+     *
+     * @param text Raw text.
+     * @return Key of the normalized text.
+     */
+    public static Key textKey(String text) {
+        String lowercase = text.toLowerCase(TURKISH);
+        StringBuilder normalized = new StringBuilder(lowercase.length());
+        long hash = FNV_OFFSET_BASIS;
+        boolean pendingSpace = false;
+        for (int i = 0; i < lowercase.length(); i++) {
+            char c = lowercase.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                hash = (hash ^ ' ') * FNV_PRIME;
+                pendingSpace = false;
+            }
+            normalized.append(c);
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        return new Key(mix(hash), normalized.toString());
+    }
+
+    /**
+     * Keys the multiset of a document's tokens, so that documents with the same terms in a
+     * different order (which get the same TF-IDF vector) share a key.
+     *
+     * @param tokens Preprocessed tokens.
+     * @return Key of the sorted tokens.
+     */
+    public static Key tokenKey(List<String> tokens) {
+        String[] sorted = tokens.toArray(new String[0]);
+        Arrays.sort(sorted);
+        StringBuilder content = new StringBuilder();
+        long hash = FNV_OFFSET_BASIS ^ TOKEN_KEY_SEED;
+        for (String token : sorted) {
+            // Length prefix keeps ["ab", "c"] apart from ["a", "bc"]
+            content.append(token.length()).append(':').append(token);
+            hash = (hash ^ token.length()) * FNV_PRIME;
+            for (int i = 0; i < token.length(); i++) {
+                hash = (hash ^ token.charAt(i)) * FNV_PRIME;
+            }
+        }
+        // The leading NUL, which tweet texts do not contain, keeps token keys apart from text keys
+        return new Key(mix(hash), "\u0000" + content);
+    }
+
+    /**
+     * Final avalanche step (from MurmurHash3), so that similar texts spread over the whole key range.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Cache key: normalized content and its precomputed 64-bit hash.
+     *
+     * @param hash    Hash of the content.
+     * @param content Normalized content, compared on every hit.
+     */
+    public record Key(long hash, String content) {
+        public Key {
+            if (content == null) {
+                throw new IllegalArgumentException("Key content cannot be null.");
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+    }
+
+    private record CachedPrediction(String label, long modelVersion, long createdNanos) {
+    }
+}
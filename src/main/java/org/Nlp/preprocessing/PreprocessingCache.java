@@ -0,0 +1,194 @@
+package org.Nlp.preprocessing;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * On-disk cache of {@link Preprocessor#preprocess(String)} output.
+ * <p>
+ * Entries are keyed by file path and the SHA-256 hash of the file content, and the whole cache is
+ * tied to the fingerprint of the preprocessor that produced it: a cache written with a different
+ * configuration is discarded on load. The file is a compact binary format:
+ * <pre>
+ * int magic, int version, UTF fingerprint, int entryCount,
+ * entryCount x (UTF path, 32-byte content hash, int tokenCount, tokenCount x UTF token)
+ * </pre>
+ */
+public class PreprocessingCache {
+    private static final int MAGIC = 0x4E4C5043; // "NLPC"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+    private static final int MIN_ENTRY_BYTES = 2 + HASH_LENGTH + 4; // Empty path, hash, token count
+    private static final int MIN_TOKEN_BYTES = 2; // Length of an empty UTF string
+
+    private final Path cacheFile;
+    private final String configFingerprint;
+    private final Map<String, Entry> entries;
+
+    private PreprocessingCache(Path cacheFile, String configFingerprint, Map<String, Entry> entries) {
+        this.cacheFile = cacheFile;
+        this.configFingerprint = configFingerprint;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads the cache from disk. A missing, unreadable, corrupt or outdated cache file yields an empty cache.
+     *
+     * @param cacheFile         Path of the cache file.
+     * @param configFingerprint Fingerprint of the preprocessor the cache is used with.
+     * @return The loaded cache.
+     */
+    public static PreprocessingCache load(Path cacheFile, String configFingerprint) {
+        if (cacheFile == null || configFingerprint == null) {
+            throw new IllegalArgumentException("Cache file and configuration fingerprint cannot be null.");
+        }
+        Map<String, Entry> entries = new HashMap<>();
+        if (!Files.exists(cacheFile)) {
+            return new PreprocessingCache(cacheFile, configFingerprint, entries);
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(configFingerprint)) {
+                System.out.println("Preprocessing cache was written with a different configuration; rebuilding it.");
+                return new PreprocessingCache(cacheFile, configFingerprint, entries);
+            }
+            // Counts are checked against the file size, so a corrupt count cannot trigger a huge allocation
+            long fileSize = Files.size(cacheFile);
+            int entryCount = readCount(in, fileSize / MIN_ENTRY_BYTES);
+            for (int i = 0; i < entryCount; i++) {
+                String path = in.readUTF();
+                byte[] contentHash = new byte[HASH_LENGTH];
+                in.readFully(contentHash);
+                int tokenCount = readCount(in, fileSize / MIN_TOKEN_BYTES);
+                List<String> tokens = new ArrayList<>(tokenCount);
+                for (int t = 0; t < tokenCount; t++) {
+                    tokens.add(in.readUTF());
+                }
+                entries.put(path, new Entry(contentHash, tokens));
+            }
+            if (in.read() != -1) {
+                throw new IOException("Unexpected data after the last entry.");
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to read preprocessing cache: " + cacheFile + ". Error: " + e);
+            entries.clear();
+        }
+        return new PreprocessingCache(cacheFile, configFingerprint, entries);
+    }
+
+    /**
+     * Reads a count and checks that it is between 0 and {@code max}.
+     */
+    private static int readCount(DataInputStream in, long max) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > max) {
+            throw new IOException("Corrupt count in cache file: " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the cached tokens of a file if its content has not changed.
+     *
+     * @param path        Path of the file.
+     * @param contentHash Hash of the current file content, see {@link #hash(String)}.
+     * @return Cached tokens, or null if the file is new or has changed.
+     */
+    public List<String> lookup(String path, byte[] contentHash) {
+        Entry entry = entries.get(path);
+        if (entry == null || !Arrays.equals(entry.contentHash(), contentHash)) {
+            return null;
+        }
+        return entry.tokens();
+    }
+
+    /**
+     * @param path Path of the file.
+     * @return true if the cache has an entry for the file, regardless of its content hash.
+     */
+    public boolean contains(String path) {
+        return entries.containsKey(path);
+    }
+
+    /**
+     * Stores the tokens of a file.
+     *
+     * @param path        Path of the file.
+     * @param contentHash Hash of the file content.
+     * @param tokens      Preprocessed tokens.
+     */
+    public void put(String path, byte[] contentHash, List<String> tokens) {
+        entries.put(path, new Entry(contentHash.clone(), List.copyOf(tokens)));
+    }
+
+    /**
+     * Removes the entries of files that no longer exist.
+     *
+     * @param existingPaths Paths of all files currently in the corpus.
+     * @return Number of removed entries.
+     */
+    public int retainAll(Set<String> existingPaths) {
+        int before = entries.size();
+        entries.keySet().retainAll(existingPaths);
+        return before - entries.size();
+    }
+
+    /**
+     * @return Number of cached files.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the cache to disk, replacing the previous file only once the new one is complete.
+     *
+     * @throws IOException if the cache file cannot be written.
+     */
+    public void save() throws IOException {
+        Path absolute = cacheFile.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path tempFile = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(configFingerprint);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.write(entry.getValue().contentHash());
+                out.writeInt(entry.getValue().tokens().size());
+                for (String token : entry.getValue().tokens()) {
+                    out.writeUTF(token);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, absolute, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Computes the content hash used as part of the cache key.
+     *
+     * @param content File content.
+     * @return SHA-256 hash of the content.
+     */
+    public static byte[] hash(String content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    private record Entry(byte[] contentHash, List<String> tokens) {
+    }
+}
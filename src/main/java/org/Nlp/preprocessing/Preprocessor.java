@@ -4,11 +4,24 @@ import zemberek.tokenization.*;
 import zemberek.morphology.*;
 import zemberek.morphology.analysis.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
 public class Preprocessor {
+    /**
+     * Identifies the tokenizer and stemmer behind {@link #getConfigFingerprint()}; change it whenever
+     * preprocessing logic changes so that previously cached output is no longer reused.
+     */
+    private static final String PIPELINE_VERSION = "zemberek-0.17.1/v2";
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr");
+    private static final TweetTokenizer TWEET_TOKENIZER = new TweetTokenizer();
+
     private final Set<String> stopWords;
-    private final TurkishMorphology morphology;
+    private TurkishMorphology morphology;
+    private final TokenizerMode tokenizerMode;
     private final TurkishTokenizer tokenizer;
 
     /**
@@ -33,12 +46,90 @@ public class Preprocessor {
      * @param customStopWords Additional stop words to merge with the default list.
      */
     public Preprocessor(Set<String> customStopWords) {
-        this.stopWords = new HashSet<>(DEFAULT_STOP_WORDS);
+        this(customStopWords, TokenizerMode.ZEMBEREK);
+    }
+
+    /**
+     * Constructor for Preprocessor with a choice of tokenizer.
+     * @param customStopWords Additional stop words to merge with the default list.
+     * @param tokenizerMode   Tokenizer used to split texts.
+     */
+    public Preprocessor(Set<String> customStopWords, TokenizerMode tokenizerMode) {
+        if (tokenizerMode == null) {
+            throw new IllegalArgumentException("Tokenizer mode cannot be null.");
+        }
+        this.stopWords = mergeStopWords(customStopWords);
+        this.tokenizerMode = tokenizerMode;
+        // Zemberek's lexer is only built when it is used
+        this.tokenizer = tokenizerMode == TokenizerMode.ZEMBEREK ? TurkishTokenizer.DEFAULT : null;
+        // The morphology is loaded on first use, so runs served entirely from the preprocessing cache skip it
+    }
+
+    /**
+     * Constructor for Preprocessor that reuses an already loaded morphology.
+     * Loading the morphology is expensive, so callers that create several
+     * preprocessors (e.g. with different stopword sets) should share one instance.
+     *
+     * @param customStopWords Additional stop words to merge with the default list.
+     * @param morphology      Morphology used for stemming.
+     */
+    public Preprocessor(Set<String> customStopWords, TurkishMorphology morphology) {
+        this(customStopWords, morphology, TokenizerMode.ZEMBEREK);
+    }
+
+    /**
+     * Constructor for Preprocessor that reuses an already loaded morphology, with a choice of tokenizer.
+     *
+     * @param customStopWords Additional stop words to merge with the default list.
+     * @param morphology      Morphology used for stemming.
+     * @param tokenizerMode   Tokenizer used to split texts.
+     */
+    public Preprocessor(Set<String> customStopWords, TurkishMorphology morphology, TokenizerMode tokenizerMode) {
+        this(customStopWords, tokenizerMode);
+        if (morphology == null) {
+            throw new IllegalArgumentException("Morphology cannot be null.");
+        }
+        this.morphology = morphology;
+    }
+
+    private static Set<String> mergeStopWords(Set<String> customStopWords) {
+        Set<String> merged = new HashSet<>(DEFAULT_STOP_WORDS);
         if (customStopWords != null) {
-            this.stopWords.addAll(customStopWords);
+            merged.addAll(customStopWords);
         }
-        this.morphology = TurkishMorphology.createWithDefaults();
-        this.tokenizer = TurkishTokenizer.DEFAULT;
+        return merged;
+    }
+
+    private synchronized TurkishMorphology morphology() {
+        if (morphology == null) {
+            morphology = TurkishMorphology.createWithDefaults();
+        }
+        return morphology;
+    }
+
+    /**
+     * Returns a hash identifying this preprocessor's configuration (stopwords, tokenizer and stemmer).
+     * Two preprocessors with the same fingerprint produce the same tokens for the same text.
+     *
+     * @return Hex-encoded SHA-256 fingerprint.
+     */
+    public String getConfigFingerprint() {
+        List<String> sortedStopWords = new ArrayList<>(stopWords);
+        Collections.sort(sortedStopWords);
+        String config = PIPELINE_VERSION + "\n" + tokenizerMode + "\n" + String.join("\n", sortedStopWords);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(config.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    /**
+     * @return The tokenizer this preprocessor splits texts with.
+     */
+    public TokenizerMode getTokenizerMode() {
+        return tokenizerMode;
     }
 
     /**
@@ -51,7 +142,10 @@ public class Preprocessor {
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        return tokenizer.tokenizeToStrings(text.toLowerCase(Locale.forLanguageTag("tr")));
+        return switch (tokenizerMode) {
+            case ZEMBEREK -> tokenizer.tokenizeToStrings(text.toLowerCase(TURKISH));
+            case FAST -> TWEET_TOKENIZER.tokenize(text);
+        };
     }
 
     /**
@@ -82,6 +176,7 @@ public class Preprocessor {
      */
     public List<String> stemTokens(List<String> tokens) {
         List<String> stemmedTokens = new ArrayList<>();
+        TurkishMorphology morphology = morphology();
         for (String token : tokens) {
             try {
                 List<SingleAnalysis> analyses = morphology.analyzeAndDisambiguate(token).bestAnalysis();
@@ -0,0 +1,145 @@
+package org.Nlp.preprocessing;
+
+import org.Nlp.dataLoader.DataLoader;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Compares the {@link TokenizerMode#FAST} tokenizer with Zemberek's on the tweet corpus: how fast
+ * each one tokenizes, and how well their tokens agree, both as raw tokens and after the stopword
+ * and punctuation filter (the tokens that actually reach the stemmer).
+ */
+public class TokenizerBenchmark {
+    private static final int WARMUP_PASSES = 3;
+    private static final int TIMED_PASSES = 5;
+    private static final int REPORTED_DIFFERENCES = 15;
+
+    public static void main(String[] args) {
+        try {
+            DataLoader dataLoader = new DataLoader();
+            dataLoader.loadData(Map.of(
+                    "Positive", "src/main/java/org/Nlp/tweets/1",
+                    "Negative", "src/main/java/org/Nlp/tweets/2",
+                    "Neutral", "src/main/java/org/Nlp/tweets/3"
+            ));
+            dataLoader.cleanData();
+            List<String> texts = new ArrayList<>();
+            dataLoader.getAllData().values().forEach(texts::addAll);
+
+            Preprocessor zemberek = new Preprocessor(null, TokenizerMode.ZEMBEREK);
+            Preprocessor fast = new Preprocessor(null, TokenizerMode.FAST);
+
+            System.out.println("Tokenizing " + texts.size() + " documents.");
+            System.out.printf("%-10s %14s %12s %16s%n", "Tokenizer", "Documents/s", "us/document", "Tokens/document");
+            for (Preprocessor preprocessor : List.of(zemberek, fast)) {
+                Timing timing = time(preprocessor, texts);
+                System.out.printf("%-10s %14.0f %12.2f %16.2f%n", preprocessor.getTokenizerMode(),
+                        texts.size() / (timing.nanos() / 1e9), timing.nanos() / 1e3 / texts.size(),
+                        (double) timing.tokens() / texts.size());
+            }
+
+            Agreement raw = new Agreement();
+            Agreement filtered = new Agreement();
+            for (String text : texts) {
+                List<String> expected = zemberek.tokenize(text);
+                List<String> actual = fast.tokenize(text);
+                raw.add(expected, actual);
+                filtered.add(zemberek.removeStopWordsAndPunctuation(expected), fast.removeStopWordsAndPunctuation(actual));
+            }
+            raw.print("Raw tokens");
+            filtered.print("Filtered tokens");
+        } catch (IOException e) {
+            System.err.println("Error reading the corpus: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The fastest of several timed passes over all texts, after warm-up passes, and the number
+     * of tokens produced in one pass (which also keeps the work from being optimized away).
+     */
+    private static Timing time(Preprocessor preprocessor, List<String> texts) {
+        long best = Long.MAX_VALUE;
+        long tokens = 0;
+        for (int pass = 0; pass < WARMUP_PASSES + TIMED_PASSES; pass++) {
+            long passTokens = 0;
+            long start = System.nanoTime();
+            for (String text : texts) {
+                passTokens += preprocessor.tokenize(text).size();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (pass >= WARMUP_PASSES) {
+                best = Math.min(best, elapsed);
+            }
+            tokens = passTokens;
+        }
+        return new Timing(best, tokens);
+    }
+
+    /**
+     * Time of the fastest pass over all texts and the number of tokens produced in a pass.
+     */
+    private record Timing(long nanos, long tokens) {
+    }
+
+    /**
+     * Accumulates how the fast tokenizer's output differs from Zemberek's, comparing token multisets per document.
+     */
+    private static class Agreement {
+        private int documents;
+        private int identicalDocuments;
+        private long expectedTokens;
+        private long actualTokens;
+        private long matchedTokens;
+        private final Map<String, Integer> missing = new HashMap<>();
+        private final Map<String, Integer> extra = new HashMap<>();
+
+        void add(List<String> expected, List<String> actual) {
+            documents++;
+            if (expected.equals(actual)) {
+                identicalDocuments++;
+            }
+            expectedTokens += expected.size();
+            actualTokens += actual.size();
+
+            Map<String, Integer> remaining = new HashMap<>();
+            for (String token : expected) {
+                remaining.merge(token, 1, Integer::sum);
+            }
+            for (String token : actual) {
+                Integer count = remaining.get(token);
+                if (count != null && count > 0) {
+                    remaining.put(token, count - 1);
+                    matchedTokens++;
+                } else {
+                    extra.merge(token, 1, Integer::sum);
+                }
+            }
+            remaining.forEach((token, count) -> {
+                if (count > 0) {
+                    missing.merge(token, count, Integer::sum);
+                }
+            });
+        }
+
+        void print(String title) {
+            System.out.println();
+            System.out.println(title + ":");
+            System.out.printf("  Identical documents: %d / %d (%.2f%%)%n", identicalDocuments, documents,
+                    100.0 * identicalDocuments / Math.max(1, documents));
+            System.out.printf("  Token precision: %.4f, recall: %.4f (Zemberek: %d tokens, fast: %d tokens)%n",
+                    (double) matchedTokens / Math.max(1, actualTokens), (double) matchedTokens / Math.max(1, expectedTokens),
+                    expectedTokens, actualTokens);
+            System.out.println("  Most frequent Zemberek tokens missing from fast output: " + mostFrequent(missing));
+            System.out.println("  Most frequent fast tokens missing from Zemberek output: " + mostFrequent(extra));
+        }
+
+        private static List<String> mostFrequent(Map<String, Integer> counts) {
+            return counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(REPORTED_DIFFERENCES)
+                    .map(entry -> entry.getKey() + " x" + entry.getValue())
+                    .toList();
+        }
+    }
+}
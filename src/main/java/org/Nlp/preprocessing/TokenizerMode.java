@@ -0,0 +1,15 @@
+package org.Nlp.preprocessing;
+
+/**
+ * Tokenizers a {@link Preprocessor} can split text with.
+ */
+public enum TokenizerMode {
+    /**
+     * Zemberek's lexer-based {@code TurkishTokenizer}, applied after lowercasing with the Turkish locale.
+     */
+    ZEMBEREK,
+    /**
+     * The single-pass {@link TweetTokenizer}, which lowercases while it scans.
+     */
+    FAST
+}
@@ -0,0 +1,185 @@
+package org.Nlp.preprocessing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written tokenizer for short texts such as tweets.
+ * <p>
+ * The text is scanned once, character by character, and every token is lowercased as it is
+ * copied out, with the Turkish dotted/dotless I rules ('I' becomes a dotless i, a dotted capital I becomes 'i').
+ * Besides words (which may carry an apostrophe suffix, e.g. "ankara'da") and numbers, it keeps
+ * URLs, @mentions, #hashtags and common emoticons as single tokens; every other symbol becomes a
+ * token of its own, except "..." which is kept together.
+ */
+public class TweetTokenizer {
+    /**
+     * Emoticons recognized as tokens, longest first so that ":-)" is not split into ":-" and ")".
+     */
+    private static final String[] EMOTICONS = {
+            ":'(", ":-)", ":-(", ":-D", ":-P", ";-)",
+            ":)", ":(", ":D", ":P", ":p", ";)", ":/", ":|", "=)", "=(", "<3", "^^"
+    };
+
+    /**
+     * Splits a text into lowercased tokens.
+     *
+     * @param text Input text.
+     * @return List of tokens.
+     */
+    public List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<String> tokens = new ArrayList<>(text.length() / 5 + 1);
+        char[] buffer = new char[text.length()];
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int end;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            } else if (Character.isLetter(c)) {
+                end = isUrlStart(text, i) ? scanUrl(text, i) : scanWord(text, i);
+            } else if (isDigit(c)) {
+                end = scanNumber(text, i);
+            } else if ((c == '@' || c == '#') && i + 1 < length && isNameChar(text.charAt(i + 1))) {
+                end = scanName(text, i + 1);
+            } else {
+                end = scanSymbol(text, i);
+            }
+            tokens.add(lowercase(text, i, end, buffer));
+            i = end;
+        }
+        return tokens;
+    }
+
+    /**
+     * Scans letters and digits, joining an apostrophe followed by a letter (a suffix such as "'da").
+     */
+    private static int scanWord(String text, int start) {
+        int i = start + 1;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                i++;
+            } else if (isApostrophe(c) && i + 1 < text.length() && Character.isLetter(text.charAt(i + 1))) {
+                i += 2;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Scans digits, joining a '.' or ',' between two digits (e.g. "1.000" or "3,5").
+     */
+    private static int scanNumber(String text, int start) {
+        int i = start + 1;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                i++;
+            } else if ((c == '.' || c == ',') && i + 1 < text.length() && isDigit(text.charAt(i + 1))) {
+                i += 2;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Scans the name of a mention or hashtag.
+     */
+    private static int scanName(String text, int start) {
+        int i = start;
+        while (i < text.length() && isNameChar(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Scans a URL up to the next whitespace, leaving trailing punctuation to its own tokens.
+     */
+    private static int scanUrl(String text, int start) {
+        int i = start;
+        while (i < text.length() && !Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        while (i > start + 1 && isTrailingPunctuation(text.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean isUrlStart(String text, int i) {
+        return text.regionMatches(true, i, "http://", 0, 7)
+                || text.regionMatches(true, i, "https://", 0, 8)
+                || text.regionMatches(true, i, "www.", 0, 4);
+    }
+
+    /**
+     * Scans an emoticon, an ellipsis, or otherwise a single symbol (code point). An emoticon ending in
+     * a letter (":D", ":p") only counts when no letter or digit follows, so "durum:Pozitif" is not split.
+     */
+    private static int scanSymbol(String text, int start) {
+        for (String emoticon : EMOTICONS) {
+            if (text.startsWith(emoticon, start)) {
+                int end = start + emoticon.length();
+                if (Character.isLetter(emoticon.charAt(emoticon.length() - 1))
+                        && end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+                    continue;
+                }
+                return end;
+            }
+        }
+        if (text.startsWith("...", start)) {
+            return start + 3;
+        }
+        return start + Character.charCount(text.codePointAt(start));
+    }
+
+    /**
+     * Copies {@code text[start, end)} lowercased with the Turkish locale rules.
+     */
+    private static String lowercase(String text, int start, int end, char[] buffer) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == 'I') {
+                c = '\u0131';
+            } else if (c == '\u0130') {
+                c = 'i';
+            } else if (c < 128) {
+                if (c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+            } else if (!Character.isSurrogate(c)) {
+                c = Character.toLowerCase(c);
+            }
+            buffer[i - start] = c;
+        }
+        return new String(buffer, 0, end - start);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNameChar(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '\u2019';
+    }
+
+    private static boolean isTrailingPunctuation(char c) {
+        return c == '.' || c == ',' || c == '!' || c == '?' || c == ')' || c == '"' || c == '\'' || c == ';' || c == ':';
+    }
+}
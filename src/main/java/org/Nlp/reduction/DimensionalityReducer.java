@@ -0,0 +1,62 @@
+package org.Nlp.reduction;
+
+import org.Nlp.matrix.FeatureMatrix;
+import org.Nlp.matrix.HeapMatrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps TF-IDF vectors to a much smaller number of dense dimensions before k-NN.
+ * <p>
+ * The reducer is fitted once on the training matrix; {@link #transform(double[])} then maps any
+ * vector of the same vocabulary, such as a new document from {@code TFIDFVectorizer.transform},
+ * into the same reduced space as the training rows.
+ */
+public interface DimensionalityReducer {
+
+    /**
+     * Fits the reducer to a training matrix.
+     *
+     * @param matrix The TF-IDF matrix.
+     */
+    void fit(FeatureMatrix matrix);
+
+    /**
+     * Maps one vector to the reduced space.
+     *
+     * @param vector Vector with one component per column of the fitted matrix.
+     * @return Reduced vector with {@link #getComponents()} components.
+     */
+    double[] transform(double[] vector);
+
+    /**
+     * @return Number of dimensions of the reduced space.
+     */
+    int getComponents();
+
+    /**
+     * Maps every row of a matrix to the reduced space.
+     *
+     * @param matrix Matrix with the same columns as the fitted matrix.
+     * @return Dense matrix of reduced rows.
+     */
+    default FeatureMatrix transform(FeatureMatrix matrix) {
+        List<double[]> rows = new ArrayList<>(matrix.rows());
+        for (int i = 0; i < matrix.rows(); i++) {
+            rows.add(transform(matrix.row(i)));
+        }
+        return new HeapMatrix(rows);
+    }
+
+    /**
+     * Fits the reducer to a matrix and maps its rows to the reduced space.
+     *
+     * @param matrix The TF-IDF matrix.
+     * @return Dense matrix of reduced rows.
+     */
+    default FeatureMatrix fitTransform(FeatureMatrix matrix) {
+        fit(matrix);
+        return transform(matrix);
+    }
+}
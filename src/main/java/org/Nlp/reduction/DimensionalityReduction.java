@@ -0,0 +1,91 @@
+package org.Nlp.reduction;
+
+import org.Nlp.knn.Classifier;
+import org.Nlp.knn.ClassifierTrainer;
+import org.Nlp.matrix.FeatureMatrix;
+
+/**
+ * Optional reduction of the TF-IDF vectors before k-NN.
+ *
+ * @param method     Reduction method, or {@link Method#NONE} to keep the TF-IDF vectors as they are.
+ * @param components Number of reduced dimensions (ignored for {@link Method#NONE}).
+ */
+public record DimensionalityReduction(Method method, int components) {
+
+    /**
+     * No reduction.
+     */
+    public static final DimensionalityReduction NONE = new DimensionalityReduction(Method.NONE, 0);
+
+    /**
+     * Supported reduction methods.
+     */
+    public enum Method {
+        NONE,
+        RANDOM_PROJECTION,
+        RANDOMIZED_SVD
+    }
+
+    public DimensionalityReduction {
+        if (method == null) {
+            throw new IllegalArgumentException("Reduction method cannot be null.");
+        }
+        if (method == Method.NONE) {
+            components = 0;
+        } else if (components <= 0) {
+            throw new IllegalArgumentException("Number of components must be greater than 0.");
+        }
+    }
+
+    /**
+     * @param components Number of reduced dimensions.
+     * @return A sparse random projection setting.
+     */
+    public static DimensionalityReduction randomProjection(int components) {
+        return new DimensionalityReduction(Method.RANDOM_PROJECTION, components);
+    }
+
+    /**
+     * @param components Number of reduced dimensions.
+     * @return A randomized truncated SVD (LSA) setting.
+     */
+    public static DimensionalityReduction randomizedSvd(int components) {
+        return new DimensionalityReduction(Method.RANDOMIZED_SVD, components);
+    }
+
+    /**
+     * Creates an unfitted reducer for this setting.
+     *
+     * @return The reducer.
+     */
+    public DimensionalityReducer createReducer() {
+        return switch (method) {
+            case NONE -> throw new IllegalStateException("No reducer for DimensionalityReduction.NONE.");
+            case RANDOM_PROJECTION -> new SparseRandomProjection(components);
+            case RANDOMIZED_SVD -> new RandomizedSVD(components);
+        };
+    }
+
+    /**
+     * Wraps a trainer so that a new reducer is fitted on each training matrix it is given (e.g. the
+     * training part of a cross-validation fold) and the vectors to classify are mapped with that
+     * same reducer. The held-out rows therefore never influence the reduction.
+     *
+     * @param trainer Trainer for the classifier on the reduced vectors.
+     * @return The wrapped trainer, or {@code trainer} itself for {@link #NONE}.
+     */
+    public ClassifierTrainer wrap(ClassifierTrainer trainer) {
+        if (trainer == null) {
+            throw new IllegalArgumentException("Trainer cannot be null.");
+        }
+        if (method == Method.NONE) {
+            return trainer;
+        }
+        return (matrix, labels) -> {
+            DimensionalityReducer reducer = createReducer();
+            FeatureMatrix reduced = reducer.fitTransform(matrix);
+            Classifier classifier = trainer.train(reduced, labels);
+            return vector -> classifier.predict(reducer.transform(vector));
+        };
+    }
+}
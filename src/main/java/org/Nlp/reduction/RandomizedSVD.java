@@ -0,0 +1,350 @@
+package org.Nlp.reduction;
+
+import org.Nlp.matrix.FeatureMatrix;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Randomized truncated SVD (Halko, Martinsson and Tropp, 2011), i.e. latent semantic analysis.
+ * <p>
+ * A random Gaussian test matrix is multiplied by the TF-IDF matrix A to sample its range, a few
+ * power iterations sharpen the sample towards the top singular vectors, and the small matrix
+ * B = Q^T A is decomposed through the eigenvectors of B B^T (Jacobi method). The resulting top
+ * right singular vectors span the reduced space, and a vector x is mapped to V^T x. Products
+ * with A only visit its non-zero entries, so fitting stays cheap for sparse TF-IDF rows.
+ */
+public class RandomizedSVD implements DimensionalityReducer {
+    private static final long DEFAULT_SEED = 42; // Fixed seed for reproducibility
+    private static final int DEFAULT_OVERSAMPLING = 10;
+    private static final int DEFAULT_POWER_ITERATIONS = 2;
+    private static final int MAX_JACOBI_SWEEPS = 50;
+
+    private final int components;
+    private final int oversampling;
+    private final int powerIterations;
+    private final long seed;
+    private double[][] rightSingularVectors; // Indexed [input column][component]
+    private double[] singularValues;
+
+    /**
+     * Constructor for RandomizedSVD with 10 oversampling columns and 2 power iterations.
+     *
+     * @param components Number of singular vectors to keep.
+     */
+    public RandomizedSVD(int components) {
+        this(components, DEFAULT_OVERSAMPLING, DEFAULT_POWER_ITERATIONS, DEFAULT_SEED);
+    }
+
+    /**
+     * Constructor for RandomizedSVD.
+     *
+     * @param components      Number of singular vectors to keep.
+     * @param oversampling    Extra random samples beyond {@code components}, which improve accuracy.
+     * @param powerIterations Number of power iterations, which help when singular values decay slowly.
+     * @param seed            Seed of the random test matrix.
+     */
+    public RandomizedSVD(int components, int oversampling, int powerIterations, long seed) {
+        if (components <= 0 || oversampling < 0 || powerIterations < 0) {
+            throw new IllegalArgumentException(
+                    "Number of components must be greater than 0, and oversampling and power iterations cannot be negative.");
+        }
+        this.components = components;
+        this.oversampling = oversampling;
+        this.powerIterations = powerIterations;
+        this.seed = seed;
+    }
+
+    @Override
+    public void fit(FeatureMatrix matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("Matrix cannot be null.");
+        }
+        int rows = matrix.rows();
+        int columns = matrix.columns();
+        if (components > Math.min(rows, columns)) {
+            throw new IllegalArgumentException("Number of components cannot exceed the number of rows or columns.");
+        }
+        int samples = Math.min(components + oversampling, Math.min(rows, columns));
+        SparseRows a = SparseRows.of(matrix);
+
+        // Range finder: Q = orth(A * Omega), refined with power iterations Q = orth(A * orth(A^T * Q))
+        Random random = new Random(seed);
+        double[][] omega = new double[samples][columns];
+        for (double[] column : omega) {
+            for (int j = 0; j < columns; j++) {
+                column[j] = random.nextGaussian();
+            }
+        }
+        double[][] q = a.multiply(omega);
+        orthonormalize(q);
+        for (int iteration = 0; iteration < powerIterations; iteration++) {
+            double[][] z = a.transposeMultiply(q);
+            orthonormalize(z);
+            q = a.multiply(z);
+            orthonormalize(q);
+        }
+
+        // B = Q^T A, stored as its rows; its SVD follows from the eigendecomposition of B B^T
+        double[][] b = a.transposeMultiply(q);
+        double[][] gram = new double[samples][samples];
+        for (int r = 0; r < samples; r++) {
+            for (int s = r; s < samples; s++) {
+                gram[r][s] = gram[s][r] = dot(b[r], b[s]);
+            }
+        }
+        double[][] eigenvectors = new double[samples][samples];
+        double[] eigenvalues = jacobiEigen(gram, eigenvectors);
+        Integer[] order = new Integer[samples];
+        for (int i = 0; i < samples; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(eigenvalues[y], eigenvalues[x]));
+
+        // Right singular vectors: v = B^T w / sigma for each of the top eigenpairs (w, sigma^2)
+        rightSingularVectors = new double[columns][components];
+        singularValues = new double[components];
+        for (int c = 0; c < components; c++) {
+            int e = order[c];
+            double sigma = Math.sqrt(Math.max(0.0, eigenvalues[e]));
+            singularValues[c] = sigma;
+            if (sigma == 0.0) {
+                continue; // Rank-deficient matrix: the component stays zero
+            }
+            for (int r = 0; r < samples; r++) {
+                double weight = eigenvectors[r][e] / sigma;
+                if (weight == 0.0) {
+                    continue;
+                }
+                double[] bRow = b[r];
+                for (int j = 0; j < columns; j++) {
+                    rightSingularVectors[j][c] += bRow[j] * weight;
+                }
+            }
+        }
+    }
+
+    @Override
+    public double[] transform(double[] vector) {
+        if (rightSingularVectors == null) {
+            throw new IllegalStateException("The SVD must be fitted before transforming.");
+        }
+        if (vector == null || vector.length != rightSingularVectors.length) {
+            throw new IllegalArgumentException("Vector must have " + rightSingularVectors.length + " components.");
+        }
+        double[] reduced = new double[components];
+        for (int j = 0; j < vector.length; j++) {
+            double value = vector[j];
+            if (value == 0.0) {
+                continue;
+            }
+            double[] loadings = rightSingularVectors[j];
+            for (int c = 0; c < components; c++) {
+                reduced[c] += loadings[c] * value;
+            }
+        }
+        return reduced;
+    }
+
+    @Override
+    public int getComponents() {
+        return components;
+    }
+
+    /**
+     * @return The approximated top singular values, largest first.
+     */
+    public double[] getSingularValues() {
+        if (singularValues == null) {
+            throw new IllegalStateException("The SVD must be fitted first.");
+        }
+        return singularValues.clone();
+    }
+
+    /**
+     * Makes the given vectors orthonormal in place (modified Gram-Schmidt, applied twice for stability).
+     * Vectors that are linearly dependent on the previous ones become zero.
+     */
+    private static void orthonormalize(double[][] vectors) {
+        for (int i = 0; i < vectors.length; i++) {
+            double[] v = vectors[i];
+            double originalNorm = Math.sqrt(dot(v, v));
+            for (int pass = 0; pass < 2; pass++) {
+                for (int p = 0; p < i; p++) {
+                    double projection = dot(vectors[p], v);
+                    double[] previous = vectors[p];
+                    for (int j = 0; j < v.length; j++) {
+                        v[j] -= projection * previous[j];
+                    }
+                }
+            }
+            double norm = Math.sqrt(dot(v, v));
+            if (norm <= 1e-10 * originalNorm || norm == 0.0) {
+                Arrays.fill(v, 0.0);
+            } else {
+                for (int j = 0; j < v.length; j++) {
+                    v[j] /= norm;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the eigendecomposition of a symmetric matrix with the cyclic Jacobi method.
+     *
+     * @param matrix       Symmetric matrix; overwritten.
+     * @param eigenvectors Filled with the eigenvectors as columns.
+     * @return The eigenvalues, in the order of the eigenvector columns.
+     */
+    private static double[] jacobiEigen(double[][] matrix, double[][] eigenvectors) {
+        int n = matrix.length;
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(eigenvectors[i], 0.0);
+            eigenvectors[i][i] = 1.0;
+        }
+        double total = 0.0;
+        for (double[] row : matrix) {
+            total += dot(row, row);
+        }
+
+        for (int sweep = 0; sweep < MAX_JACOBI_SWEEPS; sweep++) {
+            double offDiagonal = 0.0;
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    offDiagonal += matrix[p][q] * matrix[p][q];
+                }
+            }
+            if (offDiagonal <= 1e-22 * total) {
+                break;
+            }
+
+            for (int p = 0; p < n; p++) {
+                for (int q = p + 1; q < n; q++) {
+                    double apq = matrix[p][q];
+                    if (apq == 0.0) {
+                        continue;
+                    }
+                    // Rotation angle that zeroes matrix[p][q] (Numerical Recipes, section 11.1)
+                    double theta = (matrix[q][q] - matrix[p][p]) / (2 * apq);
+                    double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+                    if (theta == 0.0) {
+                        t = 1.0;
+                    }
+                    double c = 1 / Math.sqrt(t * t + 1);
+                    double s = t * c;
+
+                    for (int r = 0; r < n; r++) {
+                        if (r == p || r == q) {
+                            continue;
+                        }
+                        double arp = matrix[r][p];
+                        double arq = matrix[r][q];
+                        matrix[r][p] = matrix[p][r] = c * arp - s * arq;
+                        matrix[r][q] = matrix[q][r] = s * arp + c * arq;
+                    }
+                    matrix[p][p] -= t * apq;
+                    matrix[q][q] += t * apq;
+                    matrix[p][q] = matrix[q][p] = 0.0;
+
+                    for (int r = 0; r < n; r++) {
+                        double vrp = eigenvectors[r][p];
+                        double vrq = eigenvectors[r][q];
+                        eigenvectors[r][p] = c * vrp - s * vrq;
+                        eigenvectors[r][q] = s * vrp + c * vrq;
+                    }
+                }
+            }
+        }
+
+        double[] eigenvalues = new double[n];
+        for (int i = 0; i < n; i++) {
+            eigenvalues[i] = matrix[i][i];
+        }
+        return eigenvalues;
+    }
+
+    private static double dot(double[] x, double[] y) {
+        double sum = 0.0;
+        for (int j = 0; j < x.length; j++) {
+            sum += x[j] * y[j];
+        }
+        return sum;
+    }
+
+    /**
+     * The non-zero entries of a matrix, row by row, so that products with it skip the zeros.
+     */
+    private record SparseRows(int columns, int[][] rowColumns, double[][] rowValues) {
+
+        static SparseRows of(FeatureMatrix matrix) {
+            int[][] rowColumns = new int[matrix.rows()][];
+            double[][] rowValues = new double[matrix.rows()][];
+            for (int i = 0; i < matrix.rows(); i++) {
+                double[] row = matrix.row(i);
+                int nonZeros = 0;
+                for (double value : row) {
+                    if (value != 0.0) {
+                        nonZeros++;
+                    }
+                }
+                rowColumns[i] = new int[nonZeros];
+                rowValues[i] = new double[nonZeros];
+                for (int j = 0, p = 0; j < row.length; j++) {
+                    if (row[j] != 0.0) {
+                        rowColumns[i][p] = j;
+                        rowValues[i][p++] = row[j];
+                    }
+                }
+            }
+            return new SparseRows(matrix.columns(), rowColumns, rowValues);
+        }
+
+        /**
+         * Computes A * X for X given as column vectors of length {@code columns}.
+         *
+         * @return The columns of the product, each of length {@code rows}.
+         */
+        double[][] multiply(double[][] xColumns) {
+            double[][] product = new double[xColumns.length][rowColumns.length];
+            for (int c = 0; c < xColumns.length; c++) {
+                double[] x = xColumns[c];
+                double[] out = product[c];
+                for (int i = 0; i < rowColumns.length; i++) {
+                    int[] cols = rowColumns[i];
+                    double[] vals = rowValues[i];
+                    double sum = 0.0;
+                    for (int p = 0; p < cols.length; p++) {
+                        sum += vals[p] * x[cols[p]];
+                    }
+                    out[i] = sum;
+                }
+            }
+            return product;
+        }
+
+        /**
+         * Computes A^T * Y for Y given as column vectors of length {@code rows}.
+         *
+         * @return The columns of the product, each of length {@code columns}.
+         */
+        double[][] transposeMultiply(double[][] yColumns) {
+            double[][] product = new double[yColumns.length][columns];
+            for (int c = 0; c < yColumns.length; c++) {
+                double[] y = yColumns[c];
+                double[] out = product[c];
+                for (int i = 0; i < rowColumns.length; i++) {
+                    double weight = y[i];
+                    if (weight == 0.0) {
+                        continue;
+                    }
+                    int[] cols = rowColumns[i];
+                    double[] vals = rowValues[i];
+                    for (int p = 0; p < cols.length; p++) {
+                        out[cols[p]] += vals[p] * weight;
+                    }
+                }
+            }
+            return product;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.Nlp.reduction;
+
+import org.Nlp.matrix.FeatureMatrix;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Very sparse random projection (Li, Hastie and Church, 2006).
+ * <p>
+ * Every entry of the projection matrix is +s or -s with probability 1/(2 sqrt(d)) each and 0
+ * otherwise, where d is the number of input columns and s = sqrt(sqrt(d) / components); pairwise
+ * distances and dot products are then preserved in expectation. The projection does not depend
+ * on the data, only on its dimension, and it is stored per input column, so mapping a sparse
+ * TF-IDF vector only touches the projection entries of its non-zero terms.
+ */
+public class SparseRandomProjection implements DimensionalityReducer {
+    private static final long DEFAULT_SEED = 42; // Fixed seed for reproducibility
+
+    private final int components;
+    private final long seed;
+    private int inputColumns = -1;
+    private int[] columnStarts;
+    private int[] targetComponents;
+    private double[] values;
+
+    /**
+     * Constructor for SparseRandomProjection.
+     *
+     * @param components Number of dimensions to project to.
+     */
+    public SparseRandomProjection(int components) {
+        this(components, DEFAULT_SEED);
+    }
+
+    /**
+     * Constructor for SparseRandomProjection.
+     *
+     * @param components Number of dimensions to project to.
+     * @param seed       Seed of the random projection matrix.
+     */
+    public SparseRandomProjection(int components, long seed) {
+        if (components <= 0) {
+            throw new IllegalArgumentException("Number of components must be greater than 0.");
+        }
+        this.components = components;
+        this.seed = seed;
+    }
+
+    @Override
+    public void fit(FeatureMatrix matrix) {
+        if (matrix == null || matrix.columns() == 0) {
+            throw new IllegalArgumentException("Matrix cannot be null or have no columns.");
+        }
+        inputColumns = matrix.columns();
+        double density = 1.0 / Math.sqrt(inputColumns);
+        double scale = Math.sqrt(1.0 / (density * components));
+
+        Random random = new Random(seed);
+        columnStarts = new int[inputColumns + 1];
+        int capacity = Math.max(16, (int) (2 * density * inputColumns * components));
+        targetComponents = new int[capacity];
+        values = new double[capacity];
+        int nonZeros = 0;
+        for (int j = 0; j < inputColumns; j++) {
+            columnStarts[j] = nonZeros;
+            for (int c = 0; c < components; c++) {
+                double draw = random.nextDouble();
+                if (draw < density) {
+                    if (nonZeros == targetComponents.length) {
+                        targetComponents = Arrays.copyOf(targetComponents, 2 * nonZeros);
+                        values = Arrays.copyOf(values, 2 * nonZeros);
+                    }
+                    targetComponents[nonZeros] = c;
+                    values[nonZeros++] = draw < density / 2 ? scale : -scale;
+                }
+            }
+        }
+        columnStarts[inputColumns] = nonZeros;
+        targetComponents = Arrays.copyOf(targetComponents, nonZeros);
+        values = Arrays.copyOf(values, nonZeros);
+    }
+
+    @Override
+    public double[] transform(double[] vector) {
+        if (inputColumns < 0) {
+            throw new IllegalStateException("The projection must be fitted before transforming.");
+        }
+        if (vector == null || vector.length != inputColumns) {
+            throw new IllegalArgumentException("Vector must have " + inputColumns + " components.");
+        }
+        double[] projected = new double[components];
+        for (int j = 0; j < inputColumns; j++) {
+            double value = vector[j];
+            if (value == 0.0) {
+                continue;
+            }
+            for (int p = columnStarts[j]; p < columnStarts[j + 1]; p++) {
+                projected[targetComponents[p]] += values[p] * value;
+            }
+        }
+        return projected;
+    }
+
+    @Override
+    public int getComponents() {
+        return components;
+    }
+}
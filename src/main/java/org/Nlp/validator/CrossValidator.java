@@ -1,18 +1,49 @@
 package org.Nlp.validator;
 
-import org.Nlp.knn.KNNClassifier;
+import org.Nlp.knn.BatchScorer;
+import org.Nlp.knn.Classifier;
+import org.Nlp.knn.ClassifierTrainer;
+import org.Nlp.matrix.FeatureMatrix;
+import org.Nlp.matrix.HeapMatrix;
 import org.Nlp.metrics.MetricsCalculator;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class CrossValidator {
 
+    private static final int DEFAULT_NUM_FOLDS = 10;
+
     private final MetricsCalculator metricsCalculator = new MetricsCalculator();
     private final List<Map<String, Double>> foldMetrics = new ArrayList<>();
+    private final int numFolds;
+    private long totalPredictionNanos;
+    private long totalPredictions;
+    private long totalBatchNanos;
+    private long totalBatchPredictions;
+    private long totalTrainingNanos;
+    private long totalTrainings;
+
+    /**
+     * Constructor for CrossValidator using 10 folds.
+     */
+    public CrossValidator() {
+        this(DEFAULT_NUM_FOLDS);
+    }
+
+    /**
+     * Constructor for CrossValidator.
+     *
+     * @param numFolds Number of folds for k-fold cross-validation.
+     */
+    public CrossValidator(int numFolds) {
+        if (numFolds < 2) {
+            throw new IllegalArgumentException("Number of folds must be at least 2.");
+        }
+        this.numFolds = numFolds;
+    }
 
     /**
-     * Performs stratified 10-fold cross-validation.
+     * Performs stratified k-fold cross-validation.
      *
      * @param tfidfMatrix TF-IDF matrix (2D array) representing document-term features.
      * @param labels      List of true class labels for the documents.
@@ -20,38 +51,144 @@ public class CrossValidator {
      * @param metric      Similarity metric (e.g., "cosine", "euclidean").
      */
     public void crossValidate(double[][] tfidfMatrix, List<String> labels, int k, String metric) {
-        if (tfidfMatrix == null || labels == null || tfidfMatrix.length != labels.size()) {
+        if (tfidfMatrix == null) {
+            throw new IllegalArgumentException("Invalid input: TF-IDF matrix cannot be null.");
+        }
+        crossValidate(new HeapMatrix(tfidfMatrix), labels, k, metric);
+    }
+
+    /**
+     * Performs stratified k-fold cross-validation on any matrix storage backend.
+     * Fold training sets are views over the input matrix, so no rows are copied,
+     * and each fold's test documents are scored together with {@link BatchScorer}. Since the batch
+     * is scored on all cores, its timing is reported as throughput, not as per-document latency;
+     * use {@link #crossValidate(FeatureMatrix, List, ClassifierTrainer)} with
+     * {@link ClassifierTrainer#knn(int, String)} to measure the latency of single k-NN queries.
+     *
+     * @param tfidfMatrix TF-IDF matrix representing document-term features.
+     * @param labels      List of true class labels for the documents.
+     * @param k           Number of neighbors for k-NN.
+     * @param metric      Similarity metric (e.g., "cosine", "euclidean").
+     */
+    public void crossValidate(FeatureMatrix tfidfMatrix, List<String> labels, int k, String metric) {
+        evaluateFolds(tfidfMatrix, labels, (trainMatrix, trainLabels) -> {
+            BatchScorer scorer = new BatchScorer(trainMatrix, trainLabels);
+            return testRows -> scorer.predict(tfidfMatrix, testRows, k, metric);
+        }, true);
+    }
+
+    /**
+     * Performs stratified k-fold cross-validation of any classifier (e.g. k-NN or nearest-centroid),
+     * also measuring how long training and predictions take, separately.
+     *
+     * @param tfidfMatrix TF-IDF matrix representing document-term features.
+     * @param labels      List of true class labels for the documents.
+     * @param trainer     Trains the classifier on the training part of each fold.
+     */
+    public void crossValidate(FeatureMatrix tfidfMatrix, List<String> labels, ClassifierTrainer trainer) {
+        if (trainer == null) {
+            throw new IllegalArgumentException("Classifier trainer cannot be null.");
+        }
+        evaluateFolds(tfidfMatrix, labels, (trainMatrix, trainLabels) -> {
+            Classifier classifier = trainer.train(trainMatrix, trainLabels);
+            return testRows -> {
+                List<String> predictedLabels = new ArrayList<>(testRows.length);
+                for (int testRow : testRows) {
+                    predictedLabels.add(classifier.predict(tfidfMatrix.row(testRow)));
+                }
+                return predictedLabels;
+            };
+        }, false);
+    }
+
+    /**
+     * Performs leave-one-out cross-validation of k-NN: every document is classified by all the others.
+     * A single index over the whole matrix is reused, and each query only excludes itself, so
+     * no per-document training set is ever built.
+     *
+     * @param tfidfMatrix TF-IDF matrix representing document-term features.
+     * @param labels      List of true class labels for the documents.
+     * @param k           Number of neighbors for k-NN.
+     * @param metric      Similarity metric (e.g., "cosine", "euclidean").
+     */
+    public void crossValidateLeaveOneOut(FeatureMatrix tfidfMatrix, List<String> labels, int k, String metric) {
+        if (tfidfMatrix == null || labels == null || tfidfMatrix.rows() != labels.size()) {
+            throw new IllegalArgumentException("Invalid input: TF-IDF matrix and labels must have matching lengths.");
+        }
+
+        long start = System.nanoTime();
+        BatchScorer scorer = new BatchScorer(tfidfMatrix, labels);
+        totalTrainingNanos += System.nanoTime() - start;
+        totalTrainings++;
+
+        start = System.nanoTime();
+        List<String> predictedLabels = scorer.predictLeaveOneOut(k, metric);
+        totalBatchNanos += System.nanoTime() - start;
+        totalBatchPredictions += labels.size();
+
+        int[][] confusionMatrix = metricsCalculator.computeConfusionMatrix(
+                labels, predictedLabels, new ArrayList<>(new HashSet<>(labels))
+        );
+        foldMetrics.add(metricsCalculator.calculateMetrics(confusionMatrix));
+    }
+
+    /**
+     * Splits the data into stratified folds and records the metrics of each fold's predictions.
+     *
+     * @param tfidfMatrix TF-IDF matrix representing document-term features.
+     * @param labels      List of true class labels for the documents.
+     * @param trainer     Trains a predictor on the training part of a fold.
+     * @param batched     Whether the predictor scores a fold's documents together (timed as throughput)
+     *                    rather than one at a time (timed as per-document latency).
+     */
+    private void evaluateFolds(FeatureMatrix tfidfMatrix, List<String> labels, FoldTrainer trainer, boolean batched) {
+        if (tfidfMatrix == null || labels == null || tfidfMatrix.rows() != labels.size()) {
             throw new IllegalArgumentException("Invalid input: TF-IDF matrix and labels must have matching lengths.");
         }
 
         // Prepare data for stratified folds
         Map<String, List<Integer>> labelIndices = groupByLabel(labels);
-        List<List<Integer>> folds = createStratifiedFolds(labelIndices, 10);
+        List<int[]> folds = createStratifiedFolds(labelIndices, numFolds);
 
         for (int foldIndex = 0; foldIndex < folds.size(); foldIndex++) {
+            int[] testRows = folds.get(foldIndex);
+            if (testRows.length == 0) {
+                continue; // More folds than documents in the largest class
+            }
             System.out.println("Processing fold " + (foldIndex + 1) + "...");
 
-            // Test indices for the current fold
-            Set<Integer> testIndices = new HashSet<>(folds.get(foldIndex));
-            int finalFoldIndex = foldIndex;
-
-            // Train indices: all other folds
-            Set<Integer> trainIndices = folds.stream()
-                    .filter(fold -> !fold.equals(folds.get(finalFoldIndex)))
-                    .flatMap(Collection::stream)
-                    .collect(Collectors.toSet());
-
-            // Split into train/test sets
-            double[][] trainMatrix = extractRows(tfidfMatrix, trainIndices);
-            double[][] testMatrix = extractRows(tfidfMatrix, testIndices);
-            List<String> trainLabels = extractLabels(labels, trainIndices);
-            List<String> testLabels = extractLabels(labels, testIndices);
-
-            // Train and test k-NN classifier
-            KNNClassifier knn = new KNNClassifier(Arrays.asList(trainMatrix), trainLabels);
-            List<String> predictedLabels = new ArrayList<>();
-            for (double[] testVector : testMatrix) {
-                predictedLabels.add(knn.predict(testVector, k, metric));
+            // Train rows: all rows outside the test fold, in their original order
+            boolean[] inTestFold = new boolean[labels.size()];
+            for (int testRow : testRows) {
+                inTestFold[testRow] = true;
+            }
+            int[] trainRows = new int[labels.size() - testRows.length];
+            for (int row = 0, i = 0; row < labels.size(); row++) {
+                if (!inTestFold[row]) {
+                    trainRows[i++] = row;
+                }
+            }
+
+            // Split into train/test sets without copying any matrix rows
+            FeatureMatrix trainMatrix = tfidfMatrix.view(trainRows);
+            List<String> trainLabels = extractLabels(labels, trainRows);
+            List<String> testLabels = extractLabels(labels, testRows);
+
+            // Train the classifier, then time its predictions on their own
+            long start = System.nanoTime();
+            FoldPredictor predictor = trainer.train(trainMatrix, trainLabels);
+            totalTrainingNanos += System.nanoTime() - start;
+            totalTrainings++;
+
+            start = System.nanoTime();
+            List<String> predictedLabels = predictor.predict(testRows);
+            long elapsed = System.nanoTime() - start;
+            if (batched) {
+                totalBatchNanos += elapsed;
+                totalBatchPredictions += testRows.length;
+            } else {
+                totalPredictionNanos += elapsed;
+                totalPredictions += testRows.length;
             }
 
             // Compute confusion matrix and metrics
@@ -81,9 +218,9 @@ public class CrossValidator {
      *
      * @param labelIndices Map of labels to document indices.
      * @param numFolds     Number of folds.
-     * @return List of folds (each fold is a list of indices).
+     * @return List of folds (each fold holds its document indices in ascending order).
      */
-    private List<List<Integer>> createStratifiedFolds(Map<String, List<Integer>> labelIndices, int numFolds) {
+    private List<int[]> createStratifiedFolds(Map<String, List<Integer>> labelIndices, int numFolds) {
         List<List<Integer>> folds = new ArrayList<>();
         for (int i = 0; i < numFolds; i++) {
             folds.add(new ArrayList<>());
@@ -100,30 +237,32 @@ public class CrossValidator {
             }
         }
 
-        return folds;
+        List<int[]> sortedFolds = new ArrayList<>();
+        for (List<Integer> fold : folds) {
+            int[] indices = fold.stream().mapToInt(Integer::intValue).toArray();
+            Arrays.sort(indices);
+            sortedFolds.add(indices);
+        }
+        return sortedFolds;
     }
 
-    /**
-     * Extracts rows from a matrix based on the specified indices.
-     */
-    private double[][] extractRows(double[][] matrix, Set<Integer> indices) {
-        return indices.stream()
-                .map(index -> Arrays.copyOf(matrix[index], matrix[index].length))
-                .toArray(double[][]::new);
-    }
-
-
     /**
      * Extracts labels for the specified indices.
      */
-    private List<String> extractLabels(List<String> labels, Set<Integer> indices) {
-        return indices.stream().map(labels::get).collect(Collectors.toList());
+    private List<String> extractLabels(List<String> labels, int[] indices) {
+        List<String> extracted = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            extracted.add(labels.get(index));
+        }
+        return extracted;
     }
 
     /**
      * Aggregates and returns the average performance metrics across all folds.
      *
-     * @return A map containing macro-averaged precision, recall, and F1-score.
+     * @return A map containing macro-averaged precision, recall, F1-score and the average training time
+     * per fold, plus the average prediction time per document for classifiers queried one document at
+     * a time, or the throughput in documents per second for batch-scored k-NN.
      */
     public Map<String, Double> getPerformanceMetrics() {
         double macroPrecision = 0, macroRecall = 0, macroF1 = 0;
@@ -143,6 +282,30 @@ public class CrossValidator {
         summaryMetrics.put("Macro Precision", macroPrecision);
         summaryMetrics.put("Macro Recall", macroRecall);
         summaryMetrics.put("Macro F1-Score", macroF1);
+        if (totalPredictions > 0) {
+            summaryMetrics.put("Avg Prediction Time (ms)", totalPredictionNanos / 1e6 / totalPredictions);
+        }
+        if (totalBatchPredictions > 0) {
+            summaryMetrics.put("Batch Throughput (documents/s)", totalBatchPredictions / (totalBatchNanos / 1e9));
+        }
+        summaryMetrics.put("Avg Training Time (ms)",
+                totalTrainings == 0 ? 0.0 : totalTrainingNanos / 1e6 / totalTrainings);
         return summaryMetrics;
     }
+
+    /**
+     * Trains a predictor on the training part of a fold.
+     */
+    @FunctionalInterface
+    private interface FoldTrainer {
+        FoldPredictor train(FeatureMatrix trainMatrix, List<String> trainLabels);
+    }
+
+    /**
+     * Predicts the labels of a fold's test rows with an already trained model.
+     */
+    @FunctionalInterface
+    private interface FoldPredictor {
+        List<String> predict(int[] testRows);
+    }
 }